@@ -0,0 +1,177 @@
+package com.gustavo.musicapp.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gustavo.musicapp.exception.RateLimitExceededException;
+import com.gustavo.musicapp.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admissão das requisições do MusicController, por grupo de endpoints:
+ * balde de tokens do grupo e, opcionalmente, um por cliente (429), e bulkhead
+ * de requisições simultâneas (503). Nada fica em fila: quem não é admitido
+ * recebe a resposta na hora, com Retry-After.
+ *
+ * Nos grupos adaptive o limite de simultâneas segue AIMD: a cada
+ * adjust-interval-ms, se a latência média do MusicRepository passou de
+ * target-db-latency-ms ou há threads esperando conexão no Hikari, o limite é
+ * multiplicado por decrease-factor; senão sobe 1, até max-concurrent.
+ */
+@Component
+public class AdmissionControl {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControl.class);
+
+    public static final String DEFAULT_GROUP = "default";
+
+    @Autowired
+    private AdmissionProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Group> groups = new LinkedHashMap<>();
+    private Cache<String, TokenBucket> clientBuckets;
+
+    // Totais do music.repository.calls na última verificação, para a média do intervalo
+    private long lastCalls;
+    private double lastTotalMs;
+    private volatile double dbLatencyMs;
+    private volatile boolean congested;
+
+    @PostConstruct
+    void init() {
+        properties.getGroups().forEach((name, config) -> groups.put(name, new Group(name, config)));
+        clientBuckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    /**
+     * Admite a requisição ou lança a exceção da recusa. O grupo devolvido deve
+     * ser passado a release no fim da requisição; null se não há limites.
+     */
+    Group admit(String groupName, String client) {
+        Group group = groups.getOrDefault(groupName, groups.get(DEFAULT_GROUP));
+        if (group == null) {
+            return null;
+        }
+        if (group.config.getClientRate() > 0 && client != null) {
+            TokenBucket bucket = clientBuckets.get(group.name + '|' + client,
+                    key -> new TokenBucket(group.config.getClientRate(), group.config.getClientBurst()));
+            long wait = bucket.tryAcquire();
+            if (wait > 0) {
+                group.rejectedRate.increment();
+                throw new RateLimitExceededException("Limite de requisições do cliente excedido em " + group.name, retryAfter(wait));
+            }
+        }
+        if (group.rate != null) {
+            long wait = group.rate.tryAcquire();
+            if (wait > 0) {
+                group.rejectedRate.increment();
+                throw new RateLimitExceededException("Limite de requisições excedido em " + group.name, retryAfter(wait));
+            }
+        }
+        if (group.bulkhead != null && !group.bulkhead.tryAcquire()) {
+            group.rejectedConcurrency.increment();
+            throw new ServiceOverloadedException("Muitas requisições simultâneas em " + group.name + ", tente novamente", 1);
+        }
+        group.admitted.increment();
+        return group;
+    }
+
+    void release(Group group) {
+        if (group != null && group.bulkhead != null) {
+            group.bulkhead.release();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.music.admission.adjust-interval-ms:1000}")
+    public void adjust() {
+        long calls = 0;
+        double totalMs = 0;
+        for (Timer timer : meterRegistry.find("music.repository.calls").timers()) {
+            calls += timer.count();
+            totalMs += timer.totalTime(TimeUnit.MILLISECONDS);
+        }
+        long intervalCalls = calls - lastCalls;
+        double intervalMs = totalMs - lastTotalMs;
+        lastCalls = calls;
+        lastTotalMs = totalMs;
+        dbLatencyMs = intervalCalls > 0 ? intervalMs / intervalCalls : 0;
+
+        double pending = 0;
+        for (Gauge gauge : meterRegistry.find("hikaricp.connections.pending").gauges()) {
+            pending += gauge.value();
+        }
+        congested = dbLatencyMs > properties.getTargetDbLatencyMs() || pending > 0;
+
+        for (Group group : groups.values()) {
+            if (!group.config.isAdaptive() || group.bulkhead == null) {
+                continue;
+            }
+            int limit = group.bulkhead.getLimit();
+            int next = congested
+                    ? Math.max(group.config.getMinConcurrent(), (int) (limit * properties.getDecreaseFactor()))
+                    : Math.min(group.config.getMaxConcurrent(), limit + 1);
+            if (next != limit) {
+                group.bulkhead.setLimit(next);
+                log.debug("Admissão: limite de {} {} -> {} (banco {} ms, {} esperando conexão)",
+                        group.name, limit, next, String.format("%.1f", dbLatencyMs), (long) pending);
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("dbLatencyMs", dbLatencyMs);
+        stats.put("congested", congested);
+        stats.put("trackedClients", clientBuckets.estimatedSize());
+        for (Group group : groups.values()) {
+            if (group.bulkhead != null) {
+                stats.put(group.name + ".limit", group.bulkhead.getLimit());
+                stats.put(group.name + ".inFlight", group.bulkhead.getInFlight());
+            }
+            stats.put(group.name + ".admitted", group.admitted.sum());
+            stats.put(group.name + ".rejectedRate", group.rejectedRate.sum());
+            stats.put(group.name + ".rejectedConcurrency", group.rejectedConcurrency.sum());
+        }
+        return stats;
+    }
+
+    private static long retryAfter(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+
+    static final class Group {
+        private final String name;
+        private final AdmissionProperties.Group config;
+        private final TokenBucket rate;
+        private final Bulkhead bulkhead;
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder rejectedRate = new LongAdder();
+        private final LongAdder rejectedConcurrency = new LongAdder();
+
+        Group(String name, AdmissionProperties.Group config) {
+            this.name = name;
+            this.config = config;
+            this.rate = config.getRate() > 0 ? new TokenBucket(config.getRate(), config.getBurst()) : null;
+            this.bulkhead = config.getMaxConcurrent() > 0 ? new Bulkhead(config.getMaxConcurrent()) : null;
+        }
+    }
+}
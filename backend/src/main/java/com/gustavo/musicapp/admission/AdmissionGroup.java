@@ -0,0 +1,19 @@
+package com.gustavo.musicapp.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Grupo de admissão do endpoint (app.music.admission.groups.<nome>). Endpoints
+ * sem a anotação ficam no grupo default.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdmissionGroup {
+
+    String value();
+}
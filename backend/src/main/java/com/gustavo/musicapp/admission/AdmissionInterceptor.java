@@ -0,0 +1,61 @@
+package com.gustavo.musicapp.admission;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Aplica o AdmissionControl antes do handler. A vaga do bulkhead é devolvida
+ * no afterCompletion; em respostas assíncronas (exportação em streaming), só
+ * quando o processamento assíncrono termina.
+ */
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT = AdmissionInterceptor.class.getName() + ".permit";
+
+    private final AdmissionControl admissionControl;
+    private final String clientHeader;
+
+    public AdmissionInterceptor(AdmissionControl admissionControl, String clientHeader) {
+        this.admissionControl = admissionControl;
+        this.clientHeader = clientHeader == null || clientHeader.isBlank() ? null : clientHeader;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Redespacho assíncrono ou de erro: a requisição já foi admitida
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        AdmissionGroup group = method.getMethodAnnotation(AdmissionGroup.class);
+        AdmissionControl.Group permit = admissionControl.admit(
+                group == null ? AdmissionControl.DEFAULT_GROUP : group.value(), client(request));
+        if (permit != null) {
+            request.setAttribute(PERMIT, permit);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object permit = request.getAttribute(PERMIT);
+        if (permit != null) {
+            request.removeAttribute(PERMIT);
+            admissionControl.release((AdmissionControl.Group) permit);
+        }
+    }
+
+    private String client(HttpServletRequest request) {
+        if (clientHeader != null) {
+            String value = request.getHeader(clientHeader);
+            if (value != null && !value.isBlank()) {
+                // X-Forwarded-For: o primeiro endereço é o do cliente
+                int comma = value.indexOf(',');
+                return (comma < 0 ? value : value.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
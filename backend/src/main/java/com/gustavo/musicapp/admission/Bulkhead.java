@@ -0,0 +1,46 @@
+package com.gustavo.musicapp.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de requisições simultâneas de um grupo. Não há fila: quem não cabe é
+ * recusado na hora. O limite pode mudar com requisições em andamento; elas
+ * terminam normalmente e só as novas respeitam o valor novo.
+ */
+final class Bulkhead {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    Bulkhead(int limit) {
+        this.limit = limit;
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,110 @@
+package com.gustavo.musicapp.cache;
+
+import com.gustavo.musicapp.event.MusicChangedEvent;
+import com.gustavo.musicapp.event.MusicPlayedEvent;
+import com.gustavo.musicapp.event.PlayCountsFlushedEvent;
+import com.gustavo.musicapp.model.Music;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versões do catálogo usadas como validadores HTTP (ETag e Last-Modified).
+ *
+ * A versão do catálogo muda a cada escrita confirmada. As listas somam as
+ * reproduções ainda no buffer, então a de reproduções muda depois de qualquer
+ * play: cada reprodução só marca a versão como suja, e o incremento acontece
+ * uma vez, na próxima leitura do validador. O identificador da instância entra no ETag para que um
+ * restart ou outra réplica nunca reaproveite um número de versão antigo.
+ *
+ * Os ETags são fracos: o mesmo validador vale para JSON, CBOR e Smile, com ou
+ * sem gzip, que não são iguais byte a byte.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong catalog = new AtomicLong();
+    private final AtomicLong plays = new AtomicLong();
+    private final AtomicBoolean playsDirty = new AtomicBoolean();
+    private volatile long catalogChangedAt = System.currentTimeMillis();
+    private volatile long playsChangedAt = catalogChangedAt;
+
+    // Listas que dependem só do catálogo (gêneros, artistas)
+    public Validator catalog() {
+        return new Validator("W/\"c" + instance + "-" + catalog.get() + "\"", catalogChangedAt);
+    }
+
+    // Listas que também mostram reproduções
+    public Validator catalogAndPlays() {
+        return catalogAndPlays("", 0);
+    }
+
+    // Listas recalculadas em segundo plano depois da escrita (relacionadas): a
+    // geração delas entra no validador, que muda de novo quando elas mudam
+    public Validator catalogAndPlays(long generation, long generatedAt) {
+        return catalogAndPlays("-g" + generation, generatedAt);
+    }
+
+    private Validator catalogAndPlays(String suffix, long since) {
+        if (playsDirty.get() && playsDirty.compareAndSet(true, false)) {
+            playsChangedAt = System.currentTimeMillis();
+            plays.incrementAndGet();
+        }
+        long changedAt = Math.max(since, Math.max(catalogChangedAt, playsChangedAt));
+        return new Validator("W/\"cp" + instance + "-" + catalog.get() + "-" + plays.get() + suffix + "\"", changedAt);
+    }
+
+    // Uma música: updatedAt e reproduções atuais, exatos
+    public static Validator of(Music music, long playCount) {
+        long updatedAt = music.getUpdatedAt() == null
+                ? -1
+                : music.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new Validator("W/\"m" + music.getId() + "-" + updatedAt + "-" + playCount + "\"", updatedAt);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMusicChanged(MusicChangedEvent event) {
+        catalogChangedAt = System.currentTimeMillis();
+        catalog.incrementAndGet();
+    }
+
+    // Só escreve na primeira reprodução desde a última leitura do validador
+    @EventListener
+    public void onMusicPlayed(MusicPlayedEvent event) {
+        if (!playsDirty.get()) {
+            playsDirty.set(true);
+        }
+    }
+
+    // Flush normal não muda as listas (gravado + pendente), mas a reconstrução
+    // pelo diário corrige contagens
+    @EventListener
+    public void onPlayCountsFlushed(PlayCountsFlushedEvent event) {
+        playsChangedAt = System.currentTimeMillis();
+        plays.incrementAndGet();
+    }
+
+    public static final class Validator {
+        private final String etag;
+        private final long lastModified;
+
+        Validator(String etag, long lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        // Epoch em ms; -1 quando desconhecido
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+}
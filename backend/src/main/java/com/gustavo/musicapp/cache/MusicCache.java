@@ -0,0 +1,187 @@
+package com.gustavo.musicapp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.gustavo.musicapp.datasource.RoutingContext;
+import com.gustavo.musicapp.event.MusicChangedEvent;
+import com.gustavo.musicapp.event.PlayCountsFlushedEvent;
+import com.gustavo.musicapp.model.Music;
+import com.gustavo.musicapp.service.PlayCountBuffer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache read-through das músicas por id (Caffeine, eviction W-TinyLFU).
+ *
+ * Guarda o snapshot da entidade já desanexada; o MusicService monta a
+ * MusicResponse a cada leitura para somar as reproduções pendentes.
+ * Ids inexistentes ficam num cache negativo de vida curta.
+ *
+ * Cada snapshot guarda a sequência de flush do PlayCountBuffer lida logo depois
+ * da carga. Ao receber um lote gravado, snapshots anteriores ao lote ganham o
+ * delta numa cópia nova; os carregados durante a gravação podem já conter o
+ * delta e são descartados.
+ */
+@Component
+public class MusicCache {
+
+    @Autowired
+    private PlayCountBuffer playCountBuffer;
+
+    @Value("${app.music.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${app.music.cache.ttl:3600}")
+    private long ttlSeconds;
+
+    @Value("${app.music.cache.negative-ttl-seconds:5}")
+    private long negativeTtlSeconds;
+
+    private Cache<Long, Entry> entries;
+    private Cache<Long, Boolean> missing;
+    private final LongAdder negativeHits = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(negativeTtlSeconds))
+                .build();
+    }
+
+    public Optional<Music> get(Long id, Function<Long, Optional<Music>> loader) {
+        if (missing.getIfPresent(id) != null) {
+            negativeHits.increment();
+            return Optional.empty();
+        }
+        Entry entry = entries.get(id, key -> RoutingContext.onPrimary(() -> loader.apply(key))
+                .map(music -> new Entry(music, playCountBuffer.flushSequence()))
+                .orElse(null));
+        if (entry == null) {
+            missing.put(id, Boolean.TRUE);
+            return Optional.empty();
+        }
+        return Optional.of(entry.music);
+    }
+
+    /**
+     * Várias músicas de uma vez: as ausentes do cache são carregadas numa única
+     * chamada ao loader, e as que ele não encontrar entram no cache negativo.
+     */
+    public Map<Long, Music> getAll(Collection<Long> ids, Function<Set<Long>, Map<Long, Music>> loader) {
+        List<Long> candidates = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (missing.getIfPresent(id) != null) {
+                negativeHits.increment();
+            } else {
+                candidates.add(id);
+            }
+        }
+        Map<Long, Entry> cached = entries.getAll(candidates, keys -> {
+            Map<Long, Music> loaded = RoutingContext.onPrimary(() -> loader.apply(new HashSet<>(keys)));
+            long sequence = playCountBuffer.flushSequence();
+            Map<Long, Entry> loadedEntries = new HashMap<>();
+            loaded.forEach((id, music) -> loadedEntries.put(id, new Entry(music, sequence)));
+            return loadedEntries;
+        });
+        Map<Long, Music> found = new HashMap<>();
+        for (Long id : candidates) {
+            Entry entry = cached.get(id);
+            if (entry == null) {
+                missing.put(id, Boolean.TRUE);
+            } else {
+                found.put(id, entry.music);
+            }
+        }
+        return found;
+    }
+
+    public void invalidate(Long id) {
+        entries.invalidate(id);
+        missing.invalidate(id);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMusicChanged(MusicChangedEvent event) {
+        invalidate(event.getMusicId());
+    }
+
+    // Mantém o play_count dos snapshots alinhado com o que acabou de ser gravado
+    @EventListener
+    public void onPlayCountsFlushed(PlayCountsFlushedEvent event) {
+        long sequence = event.getSequence();
+        event.getDeltas().forEach((id, delta) -> entries.asMap().computeIfPresent(id, (key, entry) -> {
+            if (entry.flushSequence >= sequence) {
+                // Carregado durante a gravação: não dá para saber se já viu o delta
+                return null;
+            }
+            long persisted = entry.music.getPlayCount() == null ? 0 : entry.music.getPlayCount();
+            return new Entry(withPlayCount(entry.music, persisted + delta), sequence);
+        }));
+    }
+
+    // Leitores podem estar com o snapshot antigo em mãos: nunca alterar no lugar
+    private static Music withPlayCount(Music music, long playCount) {
+        Music copy = new Music();
+        copy.setId(music.getId());
+        copy.setTitle(music.getTitle());
+        copy.setArtist(music.getArtist());
+        copy.setAlbum(music.getAlbum());
+        copy.setUrl(music.getUrl());
+        copy.setDurationSeconds(music.getDurationSeconds());
+        copy.setGenre(music.getGenre());
+        copy.setReleaseYear(music.getReleaseYear());
+        copy.setPlayCount(playCount);
+        copy.setCreatedAt(music.getCreatedAt());
+        copy.setUpdatedAt(music.getUpdatedAt());
+        return copy;
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = entries.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", entries.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("loadFailureCount", stats.loadFailureCount());
+        result.put("averageLoadPenaltyNanos", stats.averageLoadPenalty());
+        result.put("negativeSize", missing.estimatedSize());
+        result.put("negativeHitCount", negativeHits.sum());
+        return result;
+    }
+
+    private static final class Entry {
+        private final Music music;
+        private final long flushSequence;
+
+        Entry(Music music, long flushSequence) {
+            this.music = music;
+            this.flushSequence = flushSequence;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.gustavo.musicapp.config;
+
+import com.gustavo.musicapp.admission.AdmissionControl;
+import com.gustavo.musicapp.admission.AdmissionInterceptor;
+import com.gustavo.musicapp.admission.AdmissionProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Controle de admissão na frente do MusicController (ver AdmissionControl)
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private AdmissionProperties properties;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (properties.isEnabled()) {
+            registry.addInterceptor(new AdmissionInterceptor(admissionControl, properties.getClientHeader()))
+                    .addPathPatterns("/api/music/**");
+        }
+    }
+}
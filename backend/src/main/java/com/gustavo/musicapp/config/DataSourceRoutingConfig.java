@@ -0,0 +1,77 @@
+package com.gustavo.musicapp.config;
+
+import com.gustavo.musicapp.datasource.ReadYourWritesFilter;
+import com.gustavo.musicapp.datasource.ReplicaProperties;
+import com.gustavo.musicapp.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leituras em réplicas (app.music.datasource.routing.enabled=true). Sem a
+ * propriedade, o Spring Boot cria o DataSource único de sempre.
+ *
+ * As réplicas usam o mesmo ajuste de pool do primário (spring.datasource.hikari),
+ * exceto o connection-timeout: réplica fora do ar deve cair para o primário
+ * (ou sair do rodízio na verificação) em connection-timeout-ms, não em 20 s.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.music.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReplicaProperties properties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaProperties.Replica> configured = properties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaProperties.Replica replica = configured.get(i);
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName("replica-" + (i + 1));
+            config.setConnectionTimeout(properties.getConnectionTimeoutMs());
+            config.setJdbcUrl(replica.getUrl());
+            if (replica.getUsername() != null && !replica.getUsername().isBlank()) {
+                config.setUsername(replica.getUsername());
+                config.setPassword(replica.getPassword());
+            }
+            config.setReadOnly(true);
+            replicas.put(config.getPoolName(), new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.getMaxLagSeconds());
+    }
+
+    // A conexão só é pega no primeiro comando, quando o readOnly da transação já está definido
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                                     ReplicaProperties properties) {
+        return new ReadYourWritesFilter(replicaRoutingDataSource, properties.getReadYourWritesMs());
+    }
+}
@@ -0,0 +1,98 @@
+package com.gustavo.musicapp.config;
+
+import com.gustavo.musicapp.admission.AdmissionControl;
+import com.gustavo.musicapp.cache.MusicCache;
+import com.gustavo.musicapp.datasource.ReplicaRoutingDataSource;
+import com.gustavo.musicapp.index.DuplicateFilter;
+import com.gustavo.musicapp.index.RelatedTracksIndex;
+import com.gustavo.musicapp.index.TrendingTracker;
+import com.gustavo.musicapp.journal.PlayJournal;
+import com.gustavo.musicapp.metrics.StatementCounter;
+import com.gustavo.musicapp.service.PlayCountBuffer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Configuration
+public class MetricsConfig {
+
+    // Contagem de comandos SQL por requisição (ver StatementCountFilter)
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    // Expõe como gauges as mesmas métricas de /api/stats
+    @Bean
+    public MeterBinder musicStatsMetrics(PlayCountBuffer playCountBuffer, MusicCache musicCache,
+                                         DuplicateFilter duplicateFilter, PlayJournal playJournal,
+                                         TrendingTracker trendingTracker, RelatedTracksIndex relatedTracksIndex,
+                                         AdmissionControl admissionControl,
+                                         ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource) {
+        return registry -> {
+            bindStats(registry, "music.play.counter", playCountBuffer::getStats);
+            bindStats(registry, "music.cache", musicCache::getStats);
+            bindStats(registry, "music.duplicate.filter", duplicateFilter::getStats);
+            bindStats(registry, "music.play.journal", playJournal::getStats);
+            bindStats(registry, "music.trending", trendingTracker::getStats);
+            bindStats(registry, "music.related", relatedTracksIndex::getStats);
+            bindStats(registry, "music.admission", admissionControl::getStats);
+            replicaRoutingDataSource.ifAvailable(routing -> bindStats(registry, "music.datasource", routing::getStats));
+        };
+    }
+
+    // Um getStats() por scrape: as gauges do mesmo nome leem o mesmo snapshot
+    private static void bindStats(MeterRegistry registry, String name,
+                                  Supplier<Map<String, Object>> stats) {
+        MemoizedStats memoized = new MemoizedStats(stats);
+        for (String key : memoized.get().keySet()) {
+            Gauge.builder(name, memoized, supplier -> toDouble(supplier.get().get(key)))
+                    .tag("stat", key)
+                    .strongReference(true)
+                    .register(registry);
+        }
+    }
+
+    private static double toDouble(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof Boolean flag) {
+            return flag ? 1 : 0;
+        }
+        return Double.NaN;
+    }
+
+    private static final class MemoizedStats implements Supplier<Map<String, Object>> {
+        private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+        private final Supplier<Map<String, Object>> delegate;
+        private volatile Map<String, Object> snapshot;
+        private volatile long takenAt;
+
+        MemoizedStats(Supplier<Map<String, Object>> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Map<String, Object> get() {
+            Map<String, Object> current = snapshot;
+            long now = System.nanoTime();
+            if (current == null || now - takenAt > TTL_NANOS) {
+                current = delegate.get();
+                takenAt = now;
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+}
@@ -1,25 +1,53 @@
 package com.gustavo.musicapp.controller;
 
+import com.gustavo.musicapp.admission.AdmissionGroup;
+import com.gustavo.musicapp.cache.CatalogVersion;
+import com.gustavo.musicapp.dto.CursorPage;
+import com.gustavo.musicapp.dto.FacetValue;
+import com.gustavo.musicapp.dto.ImportReport;
+import com.gustavo.musicapp.dto.MusicBatch;
+import com.gustavo.musicapp.dto.MusicFilter;
 import com.gustavo.musicapp.dto.MusicRequest;
 import com.gustavo.musicapp.dto.MusicResponse;
+import com.gustavo.musicapp.dto.Suggestion;
+import com.gustavo.musicapp.dto.TrendingMusic;
+import com.gustavo.musicapp.exception.InvalidParameterException;
+import com.gustavo.musicapp.index.FacetIndex;
+import com.gustavo.musicapp.index.TrendingTracker;
 import com.gustavo.musicapp.model.Music;
+import com.gustavo.musicapp.service.AudioStreamService;
+import com.gustavo.musicapp.service.CatalogExportService;
+import com.gustavo.musicapp.service.CatalogImportService;
 import com.gustavo.musicapp.service.MusicService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/music")
@@ -27,9 +55,45 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class MusicController {
 
+    // Propriedades aceitas em ?sort= nos endpoints paginados
+    private static final Set<String> SORTABLE = Set.of(
+            "id", "title", "artist", "album", "genre", "releaseYear", "durationSeconds", "playCount", "createdAt", "updatedAt");
+
     @Autowired
     private MusicService musicService;
 
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private CatalogExportService catalogExportService;
+
+    @Autowired
+    private AudioStreamService audioStreamService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    // Cache-Control por endpoint; "no-cache" obriga a revalidar, e a revalidação responde 304
+    @Value("${app.music.http.cache-control.music:no-cache}")
+    private String musicCacheControl;
+
+    @Value("${app.music.http.cache-control.list:no-cache}")
+    private String listCacheControl;
+
+    @Value("${app.music.http.cache-control.popular:max-age=5}")
+    private String popularCacheControl;
+
+    @Value("${app.music.http.cache-control.facets:max-age=30}")
+    private String facetsCacheControl;
+
+    @Value("${app.music.http.cache-control.trending:max-age=5}")
+    private String trendingCacheControl;
+
+    @Value("${app.music.http.cache-control.autocomplete:max-age=60}")
+    private String autocompleteCacheControl;
+
+    @AdmissionGroup("listing")
     @GetMapping
     @Operation(summary = "Listar todas as músicas", description = "Retorna uma lista paginada de todas as músicas")
     @ApiResponses({
@@ -37,11 +101,53 @@ public class MusicController {
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     public ResponseEntity<Page<MusicResponse>> getAllMusics(
-            @PageableDefault(size = 20, sort = "title", direction = Sort.Direction.ASC) Pageable pageable) {
-        Page<MusicResponse> musics = musicService.getAllMusics(pageable);
+            @PageableDefault(size = 20, sort = "title", direction = Sort.Direction.ASC) Pageable pageable,
+            WebRequest request) {
+        checkSort(pageable);
+        return conditional(request, catalogVersion.catalogAndPlays(), listCacheControl,
+                () -> musicService.getAllMusics(pageable));
+    }
+
+    @AdmissionGroup("listing")
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Listar músicas por cursor", description = "Paginação por cursor: envie cursor vazio na primeira página e o nextCursor retornado nas seguintes")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página de músicas retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor ou ordenação inválidos")
+    })
+    public ResponseEntity<CursorPage<MusicResponse>> getAllMusicsByCursor(
+            @Parameter(description = "Cursor da página anterior (vazio na primeira)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Ordenação: title, createdAt ou playCount") @RequestParam(defaultValue = "title") String sort,
+            @Parameter(description = "Direção: asc ou desc") @RequestParam(defaultValue = "asc") String direction,
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "20") int size) {
+        CursorPage<MusicResponse> musics = musicService.getAllMusicsByCursor(cursor, sort, direction, size);
         return ResponseEntity.ok(musics);
     }
 
+    @AdmissionGroup("lookup")
+    @GetMapping("/batch")
+    @Operation(summary = "Buscar músicas por IDs", description = "Retorna as músicas na ordem dos IDs informados e lista os IDs inexistentes")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Músicas retornadas"),
+        @ApiResponse(responseCode = "400", description = "IDs demais na requisição")
+    })
+    public ResponseEntity<MusicBatch> getMusicsByIds(
+            @Parameter(description = "IDs separados por vírgula") @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(musicService.getMusicsByIds(ids));
+    }
+
+    @AdmissionGroup("lookup")
+    @PostMapping("/batch")
+    @Operation(summary = "Buscar músicas por IDs (corpo)", description = "Igual ao GET /batch, com a lista de IDs no corpo para filas longas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Músicas retornadas"),
+        @ApiResponse(responseCode = "400", description = "IDs demais na requisição")
+    })
+    public ResponseEntity<MusicBatch> getMusicsByIdsFromBody(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(musicService.getMusicsByIds(ids));
+    }
+
+    @AdmissionGroup("lookup")
     @GetMapping("/{id}")
     @Operation(summary = "Buscar música por ID", description = "Retorna uma música específica pelo ID")
     @ApiResponses({
@@ -49,11 +155,13 @@ public class MusicController {
         @ApiResponse(responseCode = "404", description = "Música não encontrada")
     })
     public ResponseEntity<MusicResponse> getMusicById(
-            @Parameter(description = "ID da música") @PathVariable Long id) {
-        MusicResponse music = musicService.getMusicById(id);
-        return ResponseEntity.ok(music);
+            @Parameter(description = "ID da música") @PathVariable Long id,
+            WebRequest request) {
+        return conditional(request, musicService.getMusicValidator(id), musicCacheControl,
+                () -> musicService.getMusicById(id));
     }
 
+    @AdmissionGroup("write")
     @PostMapping
     @Operation(summary = "Adicionar nova música", description = "Cria uma nova música no sistema")
     @ApiResponses({
@@ -66,6 +174,45 @@ public class MusicController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdMusic);
     }
 
+    @AdmissionGroup("write")
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    @Operation(summary = "Importar catálogo em lote", description = "Importa músicas de um corpo NDJSON ou CSV (com cabeçalho) e retorna o resultado de cada linha")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Importação processada"),
+        @ApiResponse(responseCode = "415", description = "Formato não suportado")
+    })
+    public ResponseEntity<ImportReport> importMusics(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+        ImportReport report = csv ? catalogImportService.importCsv(body) : catalogImportService.importNdjson(body);
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exportar catálogo", description = "Exporta o catálogo em streaming (NDJSON ou CSV), com filtros opcionais")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Exportação iniciada")
+    })
+    public ResponseEntity<StreamingResponseBody> exportMusics(
+            @Parameter(description = "Formato: ndjson ou csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Gênero") @RequestParam(required = false) String genre,
+            @Parameter(description = "Ano de lançamento inicial") @RequestParam(required = false) Integer fromYear,
+            @Parameter(description = "Ano de lançamento final") @RequestParam(required = false) Integer toYear,
+            @Parameter(description = "Mínimo de reproduções") @RequestParam(required = false) Long minPlays) {
+        CatalogExportService.Format exportFormat = "csv".equalsIgnoreCase(format)
+                ? CatalogExportService.Format.CSV
+                : CatalogExportService.Format.NDJSON;
+        StreamingResponseBody body = out ->
+                catalogExportService.export(exportFormat, genre, fromYear, toYear, minPlays, out);
+        String fileName = exportFormat == CatalogExportService.Format.CSV ? "musics.csv" : "musics.ndjson";
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat == CatalogExportService.Format.CSV ? "text/csv" : "application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    @AdmissionGroup("write")
     @PutMapping("/{id}")
     @Operation(summary = "Atualizar música", description = "Atualiza os dados de uma música existente")
     @ApiResponses({
@@ -80,6 +227,7 @@ public class MusicController {
         return ResponseEntity.ok(updatedMusic);
     }
 
+    @AdmissionGroup("write")
     @DeleteMapping("/{id}")
     @Operation(summary = "Deletar música", description = "Remove uma música do sistema")
     @ApiResponses({
@@ -92,6 +240,7 @@ public class MusicController {
         return ResponseEntity.noContent().build();
     }
 
+    @AdmissionGroup("search")
     @GetMapping("/search")
     @Operation(summary = "Buscar músicas", description = "Busca músicas por título, artista ou álbum")
     @ApiResponses({
@@ -101,10 +250,44 @@ public class MusicController {
     public ResponseEntity<Page<MusicResponse>> searchMusics(
             @Parameter(description = "Termo de busca") @RequestParam String query,
             @PageableDefault(size = 20) Pageable pageable) {
+        checkSort(pageable);
         Page<MusicResponse> results = musicService.searchMusics(query, pageable);
         return ResponseEntity.ok(results);
     }
 
+    @AdmissionGroup("lookup")
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Autocompletar busca", description = "Sugere títulos, artistas e álbuns que começam com o prefixo, ordenados por reproduções")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Sugestões retornadas")
+    })
+    public ResponseEntity<List<Suggestion>> autocomplete(
+            @Parameter(description = "Texto digitado") @RequestParam String prefix,
+            @Parameter(description = "Máximo de sugestões") @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, autocompleteCacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(musicService.autocomplete(prefix, limit));
+    }
+
+    @AdmissionGroup("search")
+    @GetMapping(value = "/search", params = "cursor")
+    @Operation(summary = "Buscar músicas por cursor", description = "Busca por título, artista ou álbum com paginação por cursor")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Resultados da busca retornados"),
+        @ApiResponse(responseCode = "400", description = "Cursor ou ordenação inválidos")
+    })
+    public ResponseEntity<CursorPage<MusicResponse>> searchMusicsByCursor(
+            @Parameter(description = "Termo de busca") @RequestParam String query,
+            @Parameter(description = "Cursor da página anterior (vazio na primeira)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Ordenação: title, createdAt ou playCount") @RequestParam(defaultValue = "title") String sort,
+            @Parameter(description = "Direção: asc ou desc") @RequestParam(defaultValue = "asc") String direction,
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "20") int size) {
+        CursorPage<MusicResponse> results = musicService.searchMusicsByCursor(query, cursor, sort, direction, size);
+        return ResponseEntity.ok(results);
+    }
+
+    @AdmissionGroup("listing")
     @GetMapping("/artist/{artist}")
     @Operation(summary = "Buscar músicas por artista", description = "Retorna todas as músicas de um artista específico")
     @ApiResponses({
@@ -112,11 +295,13 @@ public class MusicController {
         @ApiResponse(responseCode = "404", description = "Nenhuma música encontrada para o artista")
     })
     public ResponseEntity<List<MusicResponse>> getMusicsByArtist(
-            @Parameter(description = "Nome do artista") @PathVariable String artist) {
-        List<MusicResponse> musics = musicService.getMusicsByArtist(artist);
-        return ResponseEntity.ok(musics);
+            @Parameter(description = "Nome do artista") @PathVariable String artist,
+            WebRequest request) {
+        return conditional(request, catalogVersion.catalogAndPlays(), listCacheControl,
+                () -> musicService.getMusicsByArtist(artist));
     }
 
+    @AdmissionGroup("listing")
     @GetMapping("/genre/{genre}")
     @Operation(summary = "Buscar músicas por gênero", description = "Retorna todas as músicas de um gênero específico")
     @ApiResponses({
@@ -124,11 +309,31 @@ public class MusicController {
     })
     public ResponseEntity<Page<MusicResponse>> getMusicsByGenre(
             @Parameter(description = "Gênero musical") @PathVariable String genre,
-            @PageableDefault(size = 20) Pageable pageable) {
-        Page<MusicResponse> musics = musicService.getMusicsByGenre(genre, pageable);
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest request) {
+        checkSort(pageable);
+        return conditional(request, catalogVersion.catalogAndPlays(), listCacheControl,
+                () -> musicService.getMusicsByGenre(genre, pageable));
+    }
+
+    @AdmissionGroup("listing")
+    @GetMapping(value = "/genre/{genre}", params = "cursor")
+    @Operation(summary = "Buscar músicas por gênero por cursor", description = "Músicas de um gênero com paginação por cursor")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Músicas do gênero encontradas"),
+        @ApiResponse(responseCode = "400", description = "Cursor ou ordenação inválidos")
+    })
+    public ResponseEntity<CursorPage<MusicResponse>> getMusicsByGenreByCursor(
+            @Parameter(description = "Gênero musical") @PathVariable String genre,
+            @Parameter(description = "Cursor da página anterior (vazio na primeira)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Ordenação: title, createdAt ou playCount") @RequestParam(defaultValue = "title") String sort,
+            @Parameter(description = "Direção: asc ou desc") @RequestParam(defaultValue = "asc") String direction,
+            @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "20") int size) {
+        CursorPage<MusicResponse> musics = musicService.getMusicsByGenreByCursor(genre, cursor, sort, direction, size);
         return ResponseEntity.ok(musics);
     }
 
+    @AdmissionGroup("play")
     @PostMapping("/{id}/play")
     @Operation(summary = "Reproduzir música", description = "Incrementa o contador de reproduções da música")
     @ApiResponses({
@@ -141,14 +346,179 @@ public class MusicController {
         return ResponseEntity.ok(music);
     }
 
+    @GetMapping("/{id}/stream")
+    @Operation(summary = "Ouvir música", description = "Envia o arquivo de áudio com suporte a Range (206), várias faixas e If-Range; entregar o início do arquivo registra uma reprodução")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Arquivo completo"),
+        @ApiResponse(responseCode = "206", description = "Faixa(s) do arquivo"),
+        @ApiResponse(responseCode = "404", description = "Música ou arquivo de áudio não encontrado"),
+        @ApiResponse(responseCode = "416", description = "Range fora do arquivo")
+    })
+    public void streamMusic(
+            @Parameter(description = "ID da música") @PathVariable Long id,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        audioStreamService.stream(id, request, response);
+    }
+
+    @AdmissionGroup("popular")
+    @GetMapping("/{id}/related")
+    @Operation(summary = "Músicas relacionadas", description = "Retorna as músicas mais parecidas por artista, álbum, gênero, ano e duração")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Músicas relacionadas retornadas"),
+        @ApiResponse(responseCode = "404", description = "Música não encontrada")
+    })
+    public ResponseEntity<List<MusicResponse>> getRelatedMusics(
+            @Parameter(description = "ID da música") @PathVariable Long id,
+            @Parameter(description = "Limite de resultados") @RequestParam(defaultValue = "10") int limit,
+            WebRequest request) {
+        return conditional(request, musicService.getRelatedValidator(), listCacheControl,
+                () -> musicService.getRelatedMusics(id, limit));
+    }
+
+    @AdmissionGroup("popular")
     @GetMapping("/popular")
     @Operation(summary = "Músicas mais populares", description = "Retorna as músicas mais reproduzidas")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Músicas populares retornadas")
     })
     public ResponseEntity<List<MusicResponse>> getPopularMusics(
+            @Parameter(description = "Limite de resultados") @RequestParam(defaultValue = "10") int limit,
+            WebRequest request) {
+        requirePositive("limit", limit);
+        return conditional(request, catalogVersion.catalogAndPlays(), popularCacheControl,
+                () -> musicService.getPopularMusics(limit));
+    }
+
+    @AdmissionGroup("popular")
+    @GetMapping("/trending")
+    @Operation(summary = "Músicas em alta", description = "Ranking por reproduções recentes na última hora, dia ou semana, com decaimento exponencial")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Músicas em alta retornadas"),
+        @ApiResponse(responseCode = "400", description = "Janela inválida")
+    })
+    public ResponseEntity<List<TrendingMusic>> getTrendingMusics(
+            @Parameter(description = "Janela: hour, day ou week") @RequestParam(defaultValue = "day") String window,
             @Parameter(description = "Limite de resultados") @RequestParam(defaultValue = "10") int limit) {
-        List<MusicResponse> popularMusics = musicService.getPopularMusics(limit);
-        return ResponseEntity.ok(popularMusics);
+        requirePositive("limit", limit);
+        TrendingTracker.Window trendingWindow = TrendingTracker.Window.fromValue(window);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, trendingCacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(musicService.getTrendingMusics(trendingWindow, limit));
+    }
+
+    @AdmissionGroup("popular")
+    @GetMapping("/facets")
+    @Operation(summary = "Facetas do catálogo", description = "Retorna gêneros, artistas e álbuns com número de músicas e total de reproduções")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Facetas retornadas")
+    })
+    public ResponseEntity<Map<String, List<FacetValue>>> getFacets(
+            @Parameter(description = "Ordenação: value, count ou plays") @RequestParam(defaultValue = "value") String sort,
+            @Parameter(description = "Máximo de valores por faceta (0 = todos)") @RequestParam(defaultValue = "100") int limit,
+            WebRequest request) {
+        FacetIndex.Order order = toFacetOrder(sort);
+        return conditional(request, catalogVersion.catalogAndPlays(), facetsCacheControl,
+                () -> musicService.getFacets(order, limit));
+    }
+
+    @AdmissionGroup("search")
+    @GetMapping("/filter")
+    @Operation(summary = "Filtrar músicas", description = "Combina gênero, artista, faixa de ano, faixa de duração e mínimo de reproduções; resultados em ordem de id")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página de músicas retornada"),
+        @ApiResponse(responseCode = "400", description = "Parâmetros de filtro inválidos")
+    })
+    public ResponseEntity<Page<MusicResponse>> filterMusics(
+            @Parameter(description = "Gêneros (qualquer um)") @RequestParam(required = false) List<String> genre,
+            @Parameter(description = "Artistas (qualquer um)") @RequestParam(required = false) List<String> artist,
+            @Parameter(description = "Ano de lançamento inicial") @RequestParam(required = false) Integer yearFrom,
+            @Parameter(description = "Ano de lançamento final") @RequestParam(required = false) Integer yearTo,
+            @Parameter(description = "Duração mínima em segundos") @RequestParam(required = false) Integer durationFrom,
+            @Parameter(description = "Duração máxima em segundos") @RequestParam(required = false) Integer durationTo,
+            @Parameter(description = "Mínimo de reproduções") @RequestParam(required = false) Long minPlays,
+            @Parameter(description = "Combinação dos critérios: all (E) ou any (OU)") @RequestParam(defaultValue = "all") String match,
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest request) {
+        MusicFilter filter = toFilter(genre, artist, yearFrom, yearTo, durationFrom, durationTo, minPlays, match);
+        return conditional(request, catalogVersion.catalogAndPlays(), listCacheControl,
+                () -> musicService.filterMusics(filter, pageable));
+    }
+
+    @AdmissionGroup("search")
+    @GetMapping("/filter/count")
+    @Operation(summary = "Contar músicas filtradas", description = "Mesmos critérios de /filter, devolvendo só o total")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Total retornado"),
+        @ApiResponse(responseCode = "400", description = "Parâmetros de filtro inválidos")
+    })
+    public ResponseEntity<Map<String, Long>> countMusics(
+            @Parameter(description = "Gêneros (qualquer um)") @RequestParam(required = false) List<String> genre,
+            @Parameter(description = "Artistas (qualquer um)") @RequestParam(required = false) List<String> artist,
+            @Parameter(description = "Ano de lançamento inicial") @RequestParam(required = false) Integer yearFrom,
+            @Parameter(description = "Ano de lançamento final") @RequestParam(required = false) Integer yearTo,
+            @Parameter(description = "Duração mínima em segundos") @RequestParam(required = false) Integer durationFrom,
+            @Parameter(description = "Duração máxima em segundos") @RequestParam(required = false) Integer durationTo,
+            @Parameter(description = "Mínimo de reproduções") @RequestParam(required = false) Long minPlays,
+            @Parameter(description = "Combinação dos critérios: all (E) ou any (OU)") @RequestParam(defaultValue = "all") String match,
+            WebRequest request) {
+        MusicFilter filter = toFilter(genre, artist, yearFrom, yearTo, durationFrom, durationTo, minPlays, match);
+        return conditional(request, catalogVersion.catalogAndPlays(), listCacheControl,
+                () -> Map.of("count", musicService.countMusics(filter)));
+    }
+
+    private static MusicFilter toFilter(List<String> genres, List<String> artists, Integer yearFrom, Integer yearTo,
+                                        Integer durationFrom, Integer durationTo, Long minPlays, String match) {
+        boolean matchAll;
+        switch (match.toLowerCase(Locale.ROOT)) {
+            case "all":
+                matchAll = true;
+                break;
+            case "any":
+                matchAll = false;
+                break;
+            default:
+                throw new InvalidParameterException("match deve ser all ou any: " + match);
+        }
+        return new MusicFilter(genres, artists, yearFrom, yearTo, durationFrom, durationTo, minPlays, matchAll);
+    }
+
+    private static FacetIndex.Order toFacetOrder(String sort) {
+        try {
+            return FacetIndex.Order.valueOf(sort.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidParameterException("sort deve ser value, count ou plays: " + sort, ex);
+        }
+    }
+
+    private static void checkSort(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE.contains(order.getProperty())) {
+                throw new InvalidParameterException("Campo de ordenação não suportado: " + order.getProperty());
+            }
+        }
+    }
+
+    private static void requirePositive(String name, int value) {
+        if (value < 1) {
+            throw new InvalidParameterException(name + " deve ser maior que zero");
+        }
+    }
+
+    // Se o validador enviado pelo cliente ainda confere, responde 304 sem consultar nem serializar.
+    // Vary: Accept porque o mesmo ETag (fraco) vale para JSON, CBOR e Smile
+    private <T> ResponseEntity<T> conditional(WebRequest request, CatalogVersion.Validator validator,
+                                              String cacheControl, Supplier<T> body) {
+        if (request.checkNotModified(validator.getEtag(), validator.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body.get());
     }
 }
\ No newline at end of file
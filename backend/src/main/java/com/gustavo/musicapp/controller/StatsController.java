@@ -0,0 +1,115 @@
+package com.gustavo.musicapp.controller;
+
+import com.gustavo.musicapp.admission.AdmissionControl;
+import com.gustavo.musicapp.cache.MusicCache;
+import com.gustavo.musicapp.datasource.ReplicaRoutingDataSource;
+import com.gustavo.musicapp.index.DuplicateFilter;
+import com.gustavo.musicapp.index.RelatedTracksIndex;
+import com.gustavo.musicapp.index.TrendingTracker;
+import com.gustavo.musicapp.journal.PlayJournal;
+import com.gustavo.musicapp.service.PlayCountBuffer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stats")
+@Tag(name = "Stats", description = "Métricas internas da aplicação")
+public class StatsController {
+
+    @Autowired
+    private PlayCountBuffer playCountBuffer;
+
+    @Autowired
+    private MusicCache musicCache;
+
+    @Autowired
+    private DuplicateFilter duplicateFilter;
+
+    @Autowired
+    private PlayJournal playJournal;
+
+    @Autowired
+    private TrendingTracker trendingTracker;
+
+    @Autowired
+    private RelatedTracksIndex relatedTracksIndex;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    // Só existe com app.music.datasource.routing.enabled=true
+    @Autowired
+    private ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
+
+    @GetMapping("/play-counter")
+    @Operation(summary = "Métricas do contador de reproduções", description = "Retorna atraso e tamanho dos lotes gravados pelo contador de reproduções")
+    public ResponseEntity<Map<String, Object>> getPlayCounterStats() {
+        return ResponseEntity.ok(playCountBuffer.getStats());
+    }
+
+    @GetMapping("/cache")
+    @Operation(summary = "Métricas do cache de músicas", description = "Retorna acertos, falhas e remoções do cache de músicas por ID")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(musicCache.getStats());
+    }
+
+    @GetMapping("/duplicate-filter")
+    @Operation(summary = "Métricas do filtro de duplicatas", description = "Retorna consultas evitadas, consultas feitas e a taxa estimada de falsos positivos do filtro de duplicatas")
+    public ResponseEntity<Map<String, Object>> getDuplicateFilterStats() {
+        return ResponseEntity.ok(duplicateFilter.getStats());
+    }
+
+    @GetMapping("/trending")
+    @Operation(summary = "Métricas do ranking em alta", description = "Retorna quantas músicas têm contadores de reproduções recentes e o tamanho de cada ranking")
+    public ResponseEntity<Map<String, Object>> getTrendingStats() {
+        return ResponseEntity.ok(trendingTracker.getStats());
+    }
+
+    @GetMapping("/related")
+    @Operation(summary = "Métricas das músicas relacionadas", description = "Retorna quantas listas de relacionadas existem, quantas aguardam recálculo e o tempo da carga completa")
+    public ResponseEntity<Map<String, Object>> getRelatedStats() {
+        return ResponseEntity.ok(relatedTracksIndex.getStats());
+    }
+
+    @GetMapping("/admission")
+    @Operation(summary = "Métricas do controle de admissão", description = "Retorna, por grupo de endpoints, o limite atual de requisições simultâneas, as admitidas e as recusadas por taxa e por simultaneidade")
+    public ResponseEntity<Map<String, Object>> getAdmissionStats() {
+        return ResponseEntity.ok(admissionControl.getStats());
+    }
+
+    @GetMapping("/datasource")
+    @Operation(summary = "Métricas do roteamento de leituras", description = "Retorna conexões entregues pelo primário e pelas réplicas, desvios para o primário e a saúde e o atraso de cada réplica")
+    public ResponseEntity<Map<String, Object>> getDataSourceStats() {
+        ReplicaRoutingDataSource routing = replicaRoutingDataSource.getIfAvailable();
+        return ResponseEntity.ok(routing == null ? Map.of("routing", false) : routing.getStats());
+    }
+
+    @GetMapping("/play-journal")
+    @Operation(summary = "Métricas do diário de reproduções", description = "Retorna segmentos, registros ainda sem fsync e tempo do último fsync do diário de reproduções")
+    public ResponseEntity<Map<String, Object>> getPlayJournalStats() {
+        return ResponseEntity.ok(playJournal.getStats());
+    }
+
+    @PostMapping("/play-journal/rebuild")
+    @Operation(summary = "Reconstruir reproduções pelo diário", description = "Compara o play_count do banco com o total do diário de reproduções; com apply=true grava os valores do diário")
+    public ResponseEntity<Map<String, Object>> rebuildPlayCounts(
+            @Parameter(description = "Grava as correções (false só compara)") @RequestParam(defaultValue = "false") boolean apply) {
+        if (!playJournal.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Diário de reproduções desativado (app.music.journal.enabled)"));
+        }
+        return ResponseEntity.ok(playCountBuffer.rebuildFromJournal(apply));
+    }
+}
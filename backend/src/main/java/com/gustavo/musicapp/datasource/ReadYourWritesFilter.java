@@ -0,0 +1,94 @@
+package com.gustavo.musicapp.datasource;
+
+import com.gustavo.musicapp.event.MusicChangedEvent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Janela de read-your-writes. Quando uma requisição altera o catálogo, a
+ * resposta leva o cookie music_rw com o instante até o qual aquele cliente lê
+ * do primário; requisições com o cookie ainda válido não usam réplica.
+ *
+ * Toda escrita no catálogo também liga uma janela global no
+ * ReplicaRoutingDataSource, para que MusicCache e índices, que são
+ * compartilhados entre clientes, não recarreguem uma versão atrasada.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "music_rw";
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final long windowMs;
+
+    public ReadYourWritesFilter(ReplicaRoutingDataSource routingDataSource, long windowMs) {
+        this.routingDataSource = routingDataSource;
+        this.windowMs = windowMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (recentWrite(request)) {
+            RoutingContext.forcePrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RoutingContext.clear();
+        }
+    }
+
+    // Publicado dentro da transação: o primário já vale antes do commit
+    @EventListener
+    public void onMusicChanging(MusicChangedEvent event) {
+        routingDataSource.pinPrimaryUntil(System.currentTimeMillis() + windowMs);
+    }
+
+    // A janela conta a partir do commit, que em importações grandes vem bem depois
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMusicChanged(MusicChangedEvent event) {
+        long until = System.currentTimeMillis() + windowMs;
+        routingDataSource.pinPrimaryUntil(until);
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        // Uma importação publica um evento por linha: um só Set-Cookie por resposta
+        if (attributes instanceof ServletRequestAttributes servlet && servlet.getResponse() != null
+                && !servlet.getResponse().isCommitted() && servlet.getRequest().getAttribute(COOKIE) == null) {
+            servlet.getRequest().setAttribute(COOKIE, until);
+            Cookie cookie = new Cookie(COOKIE, Long.toString(until));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (windowMs + 999) / 1000));
+            cookie.setAttribute("SameSite", "Lax");
+            servlet.getResponse().addCookie(cookie);
+        }
+    }
+
+    private static boolean recentWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException ex) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
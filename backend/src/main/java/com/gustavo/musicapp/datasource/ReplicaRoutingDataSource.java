@@ -0,0 +1,218 @@
+package com.gustavo.musicapp.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Envia transações readOnly para as réplicas, em rodízio, e o resto para o
+ * primário. Precisa ficar atrás de um LazyConnectionDataSourceProxy: a
+ * conexão só pode ser escolhida depois que o Spring marcou a transação como
+ * readOnly.
+ *
+ * Réplicas que não respondem ou estão mais de max-lag-seconds atrás do
+ * primário saem do rodízio até a próxima verificação. Sem réplica saudável, ou
+ * se a réplica falha ao entregar a conexão, a leitura vai para o primário.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile List<Replica> healthy;
+
+    // Até este instante todas as leituras vão para o primário (escrita recente no catálogo)
+    private volatile long primaryUntil;
+
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long maxLagSeconds) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>();
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.maxLagSeconds = maxLagSeconds;
+        this.healthy = List.copyOf(this.replicas);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = route();
+        if (replica != null) {
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException ex) {
+                markDown(replica, ex.getMessage());
+                fallbacks.increment();
+            }
+        }
+        primaryConnections.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = route();
+        if (replica != null) {
+            try {
+                Connection connection = replica.dataSource.getConnection(username, password);
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException ex) {
+                markDown(replica, ex.getMessage());
+                fallbacks.increment();
+            }
+        }
+        primaryConnections.increment();
+        return primary.getConnection(username, password);
+    }
+
+    // Janela global de leitura no primário, para os caches não guardarem dado atrasado da réplica
+    public void pinPrimaryUntil(long epochMillis) {
+        if (epochMillis > primaryUntil) {
+            primaryUntil = epochMillis;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.music.datasource.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        List<Replica> up = new ArrayList<>();
+        for (Replica replica : replicas) {
+            String problem = probe(replica);
+            if (problem == null) {
+                if (!replica.healthy) {
+                    log.info("Réplica {} voltou ao rodízio de leitura", replica.name);
+                }
+                replica.healthy = true;
+                up.add(replica);
+            } else {
+                markDown(replica, problem);
+            }
+        }
+        healthy = List.copyOf(up);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("replicas", replicas.size());
+        stats.put("healthyReplicas", healthy.size());
+        stats.put("primaryConnections", primaryConnections.sum());
+        stats.put("replicaConnections", replicaConnections.sum());
+        stats.put("fallbacks", fallbacks.sum());
+        stats.put("primaryPinned", System.currentTimeMillis() < primaryUntil);
+        for (Replica replica : replicas) {
+            stats.put(replica.name + ".healthy", replica.healthy);
+            stats.put(replica.name + ".lagSeconds", replica.lagSeconds);
+        }
+        return stats;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Replica route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || RoutingContext.isPrimaryForced()
+                || System.currentTimeMillis() < primaryUntil) {
+            return null;
+        }
+        List<Replica> candidates = healthy;
+        if (candidates.isEmpty()) {
+            if (!replicas.isEmpty()) {
+                fallbacks.increment();
+            }
+            return null;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    // Null se a réplica pode receber leituras; senão, o motivo
+    private String probe(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return "conexão inválida";
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(VALIDATION_TIMEOUT_SECONDS);
+                try (ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+                    if (!status.next()) {
+                        // Instância sem replicação configurada (ex.: segunda base local de teste)
+                        replica.lagSeconds = 0;
+                        return null;
+                    }
+                    long lag = status.getLong("Seconds_Behind_Source");
+                    if (status.wasNull()) {
+                        replica.lagSeconds = -1;
+                        return "replicação parada";
+                    }
+                    replica.lagSeconds = lag;
+                    return lag > maxLagSeconds ? "atraso de " + lag + " s" : null;
+                }
+            } catch (SQLTimeoutException ex) {
+                return "sem resposta em " + VALIDATION_TIMEOUT_SECONDS + " s";
+            } catch (SQLException ex) {
+                // Sem privilégio para ver o status (ou banco não MySQL): vale só a conexão
+                replica.lagSeconds = -1;
+                return null;
+            }
+        } catch (SQLException ex) {
+            return ex.getMessage();
+        }
+    }
+
+    private void markDown(Replica replica, String problem) {
+        if (replica.healthy) {
+            log.warn("Réplica {} fora do rodízio de leitura: {}", replica.name, problem);
+        }
+        replica.healthy = false;
+        List<Replica> current = healthy;
+        if (current.contains(replica)) {
+            List<Replica> up = new ArrayList<>(current);
+            up.remove(replica);
+            healthy = List.copyOf(up);
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile long lagSeconds;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.gustavo.musicapp.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marca a thread atual para ler do primário mesmo em transações readOnly. O
+ * ReadYourWritesFilter liga a marca nas requisições de clientes que gravaram
+ * algo há pouco e a desliga no fim; onPrimary liga só durante uma leitura.
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private RoutingContext() {
+    }
+
+    public static void forcePrimary() {
+        PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryForced() {
+        return PRIMARY.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY.remove();
+    }
+
+    /**
+     * Leitura que vai ser combinada com o que já foi gravado no primário (os
+     * deltas do flush das reproduções, o diário): numa réplica atrasada ela
+     * traria uma base antiga. Só vale se a transação ainda não pegou conexão.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        boolean forced = isPrimaryForced();
+        forcePrimary();
+        try {
+            return read.get();
+        } finally {
+            if (!forced) {
+                clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.gustavo.musicapp.dto;
+
+import java.util.List;
+
+/**
+ * Página da paginação por cursor (keyset). Não carrega total de elementos:
+ * o cliente segue nextCursor até hasNext ser falso.
+ */
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final boolean hasNext;
+
+    public CursorPage(List<T> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public int getSize() {
+        return content.size();
+    }
+}
@@ -0,0 +1,30 @@
+package com.gustavo.musicapp.dto;
+
+/**
+ * Valor de uma faceta (gênero, artista ou álbum) com número de músicas e
+ * total de reproduções.
+ */
+public class FacetValue {
+
+    private final String value;
+    private final long count;
+    private final long plays;
+
+    public FacetValue(String value, long count, long plays) {
+        this.value = value;
+        this.count = count;
+        this.plays = plays;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getPlays() {
+        return plays;
+    }
+}
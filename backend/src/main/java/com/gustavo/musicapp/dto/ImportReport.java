@@ -0,0 +1,66 @@
+package com.gustavo.musicapp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de uma importação em lote, com o status de cada linha recebida.
+ */
+public class ImportReport {
+
+    public enum Status { CREATED, DUPLICATE, INVALID, FAILED }
+
+    private long received;
+    private long created;
+    private long duplicates;
+    private long invalid;
+    private long failed;
+    private long elapsedMillis;
+    private final List<RowResult> rows = new ArrayList<>();
+
+    public void add(RowResult row) {
+        rows.add(row);
+        received++;
+        switch (row.getStatus()) {
+            case CREATED:
+                created++;
+                break;
+            case DUPLICATE:
+                duplicates++;
+                break;
+            case INVALID:
+                invalid++;
+                break;
+            default:
+                failed++;
+        }
+    }
+
+    public long getReceived() { return received; }
+    public long getCreated() { return created; }
+    public long getDuplicates() { return duplicates; }
+    public long getInvalid() { return invalid; }
+    public long getFailed() { return failed; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+    public List<RowResult> getRows() { return rows; }
+
+    public static class RowResult {
+        private final long line;
+        private final Status status;
+        private final Long id;
+        private final String message;
+
+        public RowResult(long line, Status status, Long id, String message) {
+            this.line = line;
+            this.status = status;
+            this.id = id;
+            this.message = message;
+        }
+
+        public long getLine() { return line; }
+        public Status getStatus() { return status; }
+        public Long getId() { return id; }
+        public String getMessage() { return message; }
+    }
+}
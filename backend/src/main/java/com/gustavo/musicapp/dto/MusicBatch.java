@@ -0,0 +1,26 @@
+package com.gustavo.musicapp.dto;
+
+import java.util.List;
+
+/**
+ * Resultado da busca em lote: músicas na ordem pedida (repetições mantidas)
+ * e ids que não existem.
+ */
+public class MusicBatch {
+
+    private final List<MusicResponse> musics;
+    private final List<Long> missingIds;
+
+    public MusicBatch(List<MusicResponse> musics, List<Long> missingIds) {
+        this.musics = musics;
+        this.missingIds = missingIds;
+    }
+
+    public List<MusicResponse> getMusics() {
+        return musics;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+}
@@ -0,0 +1,71 @@
+package com.gustavo.musicapp.dto;
+
+import java.util.List;
+
+/**
+ * Critérios do filtro combinado. Vários valores do mesmo campo são combinados
+ * com OU; campos diferentes com E (matchAll) ou com OU.
+ */
+public class MusicFilter {
+
+    private final List<String> genres;
+    private final List<String> artists;
+    private final Integer yearFrom;
+    private final Integer yearTo;
+    private final Integer durationFrom;
+    private final Integer durationTo;
+    private final Long minPlays;
+    private final boolean matchAll;
+
+    public MusicFilter(List<String> genres, List<String> artists, Integer yearFrom, Integer yearTo,
+                       Integer durationFrom, Integer durationTo, Long minPlays, boolean matchAll) {
+        this.genres = genres == null ? List.of() : genres;
+        this.artists = artists == null ? List.of() : artists;
+        this.yearFrom = yearFrom;
+        this.yearTo = yearTo;
+        this.durationFrom = durationFrom;
+        this.durationTo = durationTo;
+        this.minPlays = minPlays;
+        this.matchAll = matchAll;
+    }
+
+    public List<String> getGenres() {
+        return genres;
+    }
+
+    public List<String> getArtists() {
+        return artists;
+    }
+
+    public Integer getYearFrom() {
+        return yearFrom;
+    }
+
+    public Integer getYearTo() {
+        return yearTo;
+    }
+
+    public Integer getDurationFrom() {
+        return durationFrom;
+    }
+
+    public Integer getDurationTo() {
+        return durationTo;
+    }
+
+    public Long getMinPlays() {
+        return minPlays;
+    }
+
+    public boolean isMatchAll() {
+        return matchAll;
+    }
+
+    public boolean hasYearRange() {
+        return yearFrom != null || yearTo != null;
+    }
+
+    public boolean hasDurationRange() {
+        return durationFrom != null || durationTo != null;
+    }
+}
@@ -0,0 +1,91 @@
+package com.gustavo.musicapp.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Corpo do POST e do PUT de músicas. As mesmas regras da entidade Music.
+ */
+public class MusicRequest {
+
+    @NotBlank(message = "Título é obrigatório")
+    @Size(max = 200, message = "Título deve ter no máximo 200 caracteres")
+    private String title;
+
+    @NotBlank(message = "Artista é obrigatório")
+    @Size(max = 150, message = "Nome do artista deve ter no máximo 150 caracteres")
+    private String artist;
+
+    @Size(max = 150, message = "Nome do álbum deve ter no máximo 150 caracteres")
+    private String album;
+
+    @Size(max = 500, message = "URL deve ter no máximo 500 caracteres")
+    private String url;
+
+    @PositiveOrZero(message = "Duração não pode ser negativa")
+    private Integer durationSeconds;
+
+    @Size(max = 100, message = "Gênero deve ter no máximo 100 caracteres")
+    private String genre;
+
+    private Integer releaseYear;
+
+    public MusicRequest() {}
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getArtist() {
+        return artist;
+    }
+
+    public void setArtist(String artist) {
+        this.artist = artist;
+    }
+
+    public String getAlbum() {
+        return album;
+    }
+
+    public void setAlbum(String album) {
+        this.album = album;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public Integer getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(Integer durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public void setGenre(String genre) {
+        this.genre = genre;
+    }
+
+    public Integer getReleaseYear() {
+        return releaseYear;
+    }
+
+    public void setReleaseYear(Integer releaseYear) {
+        this.releaseYear = releaseYear;
+    }
+}
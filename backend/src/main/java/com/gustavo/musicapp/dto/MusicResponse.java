@@ -0,0 +1,103 @@
+package com.gustavo.musicapp.dto;
+
+import com.gustavo.musicapp.model.Music;
+
+import java.time.LocalDateTime;
+
+/**
+ * Música devolvida pela API. O construtor completo é o alvo das projeções
+ * JPQL do MusicRepository (SELECT new ...), na ordem das colunas da entidade.
+ */
+public class MusicResponse {
+
+    private Long id;
+    private String title;
+    private String artist;
+    private String album;
+    private String url;
+    private Integer durationSeconds;
+    private String genre;
+    private Integer releaseYear;
+    private Long playCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public MusicResponse() {}
+
+    public MusicResponse(Long id, String title, String artist, String album, String url, Integer durationSeconds,
+                         String genre, Integer releaseYear, Long playCount, LocalDateTime createdAt,
+                         LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.artist = artist;
+        this.album = album;
+        this.url = url;
+        this.durationSeconds = durationSeconds;
+        this.genre = genre;
+        this.releaseYear = releaseYear;
+        this.playCount = playCount;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static MusicResponse from(Music music) {
+        return new MusicResponse(music.getId(), music.getTitle(), music.getArtist(), music.getAlbum(), music.getUrl(),
+                music.getDurationSeconds(), music.getGenre(), music.getReleaseYear(), music.getPlayCount(),
+                music.getCreatedAt(), music.getUpdatedAt());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getArtist() {
+        return artist;
+    }
+
+    public String getAlbum() {
+        return album;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Integer getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    // mm:ss, como no Music
+    public String getFormattedDuration() {
+        if (durationSeconds == null) return "00:00";
+        return String.format("%02d:%02d", durationSeconds / 60, durationSeconds % 60);
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public Integer getReleaseYear() {
+        return releaseYear;
+    }
+
+    public Long getPlayCount() {
+        return playCount;
+    }
+
+    // play_count gravado + reproduções ainda no buffer
+    public void setPlayCount(Long playCount) {
+        this.playCount = playCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
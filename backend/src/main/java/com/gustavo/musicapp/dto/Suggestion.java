@@ -0,0 +1,37 @@
+package com.gustavo.musicapp.dto;
+
+/**
+ * Sugestão do autocompletar: texto de um título, artista ou álbum, com o
+ * total de reproduções e o número de músicas que o usam.
+ */
+public class Suggestion {
+
+    private final String text;
+    private final String type;
+    private final long plays;
+    private final int count;
+
+    public Suggestion(String text, String type, long plays, int count) {
+        this.text = text;
+        this.type = type;
+        this.plays = plays;
+        this.count = count;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    // title, artist ou album
+    public String getType() {
+        return type;
+    }
+
+    public long getPlays() {
+        return plays;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,30 @@
+package com.gustavo.musicapp.dto;
+
+/**
+ * Música em alta numa janela, com a pontuação com decaimento e as
+ * reproduções da janela.
+ */
+public class TrendingMusic {
+
+    private final MusicResponse music;
+    private final double score;
+    private final long plays;
+
+    public TrendingMusic(MusicResponse music, double score, long plays) {
+        this.music = music;
+        this.score = score;
+        this.plays = plays;
+    }
+
+    public MusicResponse getMusic() {
+        return music;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public long getPlays() {
+        return plays;
+    }
+}
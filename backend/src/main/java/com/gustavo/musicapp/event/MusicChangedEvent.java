@@ -0,0 +1,47 @@
+package com.gustavo.musicapp.event;
+
+import com.gustavo.musicapp.model.Music;
+
+/**
+ * Publicado pelo MusicService quando o catálogo muda. Os índices em memória
+ * consomem o evento depois do commit da transação.
+ */
+public class MusicChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final Long musicId;
+    private final Music music;
+
+    private MusicChangedEvent(Type type, Long musicId, Music music) {
+        this.type = type;
+        this.musicId = musicId;
+        this.music = music;
+    }
+
+    public static MusicChangedEvent created(Music music) {
+        return new MusicChangedEvent(Type.CREATED, music.getId(), music);
+    }
+
+    public static MusicChangedEvent updated(Music music) {
+        return new MusicChangedEvent(Type.UPDATED, music.getId(), music);
+    }
+
+    public static MusicChangedEvent deleted(Long musicId) {
+        return new MusicChangedEvent(Type.DELETED, musicId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getMusicId() {
+        return musicId;
+    }
+
+    // Nulo para DELETED
+    public Music getMusic() {
+        return music;
+    }
+}
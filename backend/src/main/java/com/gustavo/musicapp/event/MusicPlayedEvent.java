@@ -0,0 +1,39 @@
+package com.gustavo.musicapp.event;
+
+import com.gustavo.musicapp.model.Music;
+
+import java.time.Instant;
+
+/**
+ * Publicado a cada reprodução registrada pelo MusicService.playMusic.
+ * Os ouvintes rodam na thread da requisição e precisam ser baratos.
+ */
+public class MusicPlayedEvent {
+
+    private final Music music;
+    private final long playCount;
+    private final Instant playedAt;
+
+    public MusicPlayedEvent(Music music, long playCount, Instant playedAt) {
+        this.music = music;
+        this.playCount = playCount;
+        this.playedAt = playedAt;
+    }
+
+    public Music getMusic() {
+        return music;
+    }
+
+    public Long getMusicId() {
+        return music.getId();
+    }
+
+    // Total de reproduções já incluindo esta e as ainda não gravadas
+    public long getPlayCount() {
+        return playCount;
+    }
+
+    public Instant getPlayedAt() {
+        return playedAt;
+    }
+}
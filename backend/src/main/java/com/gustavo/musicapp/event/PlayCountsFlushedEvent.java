@@ -0,0 +1,28 @@
+package com.gustavo.musicapp.event;
+
+import java.util.Map;
+
+/**
+ * Publicado pelo PlayCountBuffer depois que um lote de reproduções foi gravado.
+ */
+public class PlayCountsFlushedEvent {
+
+    // id da música -> reproduções somadas ao play_count
+    private final Map<Long, Long> deltas;
+
+    // Sequência do lote no PlayCountBuffer (ver flushSequence)
+    private final long sequence;
+
+    public PlayCountsFlushedEvent(Map<Long, Long> deltas, long sequence) {
+        this.deltas = deltas;
+        this.sequence = sequence;
+    }
+
+    public Map<Long, Long> getDeltas() {
+        return deltas;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+}
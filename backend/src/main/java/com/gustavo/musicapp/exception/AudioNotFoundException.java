@@ -0,0 +1,11 @@
+package com.gustavo.musicapp.exception;
+
+public class AudioNotFoundException extends RuntimeException {
+    public AudioNotFoundException(String message) {
+        super(message);
+    }
+
+    public AudioNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,546 @@
+package com.gustavo.musicapp.index;
+
+import com.gustavo.musicapp.event.MusicPlayedEvent;
+import com.gustavo.musicapp.model.Music;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sugestões de autocompletar sobre títulos, artistas e álbuns normalizados.
+ *
+ * Árvore radix (arestas com vários caracteres) em que cada nó guarda as
+ * top-K sugestões da sua subárvore, ordenadas pelo total de reproduções. Uma
+ * consulta só desce pelos caracteres do prefixo e devolve a lista pronta do
+ * nó, sem percorrer a subárvore. Cada sugestão também é inserida a partir do
+ * início das suas primeiras palavras, então "rhap" encontra "Bohemian
+ * Rhapsody".
+ *
+ * Aumentos de peso só sobem a sugestão nas listas do caminho; remoções e
+ * reduções recalculam o caminho de baixo para cima a partir das listas dos
+ * filhos. Reproduções são acumuladas e aplicadas em lote a cada
+ * plays-refresh-ms.
+ */
+@Component
+public class AutocompleteIndex implements CatalogIndex {
+
+    public enum Type { TITLE, ARTIST, ALBUM }
+
+    // Palavras, além da primeira, a partir das quais a sugestão também casa
+    private static final int MAX_WORD_ENTRIES = 3;
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::getPlays).reversed()
+            .thenComparing(Comparator.comparingInt(Entry::getCount).reversed())
+            .thenComparing(Entry::getText)
+            .thenComparing(Entry::getType);
+
+    @Value("${app.music.autocomplete.top-k:10}")
+    private int capacity;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root = new Node("");
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    // Última contagem conhecida por música, aplicada no próximo refresh
+    private final ConcurrentHashMap<Long, Long> pendingPlays = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Até "limit" sugestões que começam com o prefixo (ou com uma das
+     * primeiras palavras), da mais para a menos reproduzida. Vazio se o índice
+     * ainda não foi carregado.
+     */
+    public Optional<List<Entry>> suggest(String prefix, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        String key = TextNormalizer.normalize(prefix);
+        lock.readLock().lock();
+        try {
+            Entry[] top = find(key);
+            return Optional.of(List.of(Arrays.copyOf(top, Math.max(0, Math.min(limit, top.length)))));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onMusicPlayed(MusicPlayedEvent event) {
+        pendingPlays.merge(event.getMusicId(), event.getPlayCount(), Math::max);
+    }
+
+    @Scheduled(fixedDelayString = "${app.music.autocomplete.plays-refresh-ms:1000}")
+    public void applyPendingPlays() {
+        if (pendingPlays.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> plays = new HashMap<>();
+        for (Map.Entry<Long, Long> pending : pendingPlays.entrySet()) {
+            if (pendingPlays.remove(pending.getKey(), pending.getValue())) {
+                plays.put(pending.getKey(), pending.getValue());
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            plays.forEach((musicId, playCount) -> {
+                Doc doc = docs.get(musicId);
+                if (doc == null || playCount <= doc.plays) {
+                    return;
+                }
+                long delta = playCount - doc.plays;
+                doc.plays = playCount;
+                for (Entry entry : doc.entries()) {
+                    entry.plays += delta;
+                    promote(entry);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            root = new Node("");
+            entries.clear();
+            docs.clear();
+            pendingPlays.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Music music) {
+        long playCount = music.getPlayCount() == null ? 0 : music.getPlayCount();
+        lock.writeLock().lock();
+        try {
+            Doc previous = docs.remove(music.getId());
+            if (previous != null) {
+                // Eventos de atualização trazem o play_count do banco, que pode estar atrás
+                playCount = Math.max(playCount, previous.plays);
+                detach(previous);
+            }
+            Doc doc = new Doc(entry(Type.TITLE, music.getTitle()), entry(Type.ARTIST, music.getArtist()),
+                    entry(Type.ALBUM, music.getAlbum()), playCount);
+            docs.put(music.getId(), doc);
+            for (Entry entry : doc.entries()) {
+                entry.count++;
+                entry.plays += playCount;
+                if (!entry.attached) {
+                    insert(entry);
+                } else {
+                    promote(entry);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long musicId) {
+        lock.writeLock().lock();
+        try {
+            Doc previous = docs.remove(musicId);
+            if (previous != null) {
+                detach(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void detach(Doc doc) {
+        for (Entry entry : doc.entries()) {
+            entry.count--;
+            entry.plays -= doc.plays;
+            if (entry.count == 0) {
+                entries.remove(entry.slot());
+                for (String key : entry.keys) {
+                    removeTerminal(key, entry);
+                }
+                entry.attached = false;
+            } else {
+                for (String key : entry.keys) {
+                    List<Node> path = path(key);
+                    if (path != null) {
+                        recompute(path);
+                    }
+                }
+            }
+        }
+    }
+
+    private Entry entry(Type type, String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String key = TextNormalizer.normalize(text);
+        if (key.isEmpty()) {
+            return null;
+        }
+        return entries.computeIfAbsent(type.ordinal() + ":" + key, slot -> new Entry(type, key, text.trim()));
+    }
+
+    // ---- árvore radix ----
+
+    private Entry[] find(String prefix) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            Node child = node.child(prefix.charAt(position));
+            if (child == null) {
+                return NO_ENTRIES;
+            }
+            int common = commonPrefix(child.label, prefix, position);
+            if (position + common == prefix.length()) {
+                // Prefixo termina no meio ou no fim da aresta
+                return child.top;
+            }
+            if (common < child.label.length()) {
+                return NO_ENTRIES;
+            }
+            node = child;
+            position += common;
+        }
+        return node.top;
+    }
+
+    private void insert(Entry entry) {
+        entry.attached = true;
+        for (String key : entry.keys) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int position = 0;
+            while (position < key.length()) {
+                Node child = node.child(key.charAt(position));
+                if (child == null) {
+                    child = new Node(key.substring(position));
+                    node.addChild(child);
+                    path.add(child);
+                    node = child;
+                    break;
+                }
+                int common = commonPrefix(child.label, key, position);
+                if (common < child.label.length()) {
+                    child = node.split(child, common);
+                }
+                path.add(child);
+                node = child;
+                position += common;
+            }
+            node.addTerminal(entry);
+            for (Node onPath : path) {
+                onPath.top = offer(onPath.top, entry);
+            }
+        }
+    }
+
+    // Peso aumentou: a sugestão só pode subir nas listas do caminho
+    private void promote(Entry entry) {
+        for (String key : entry.keys) {
+            List<Node> path = path(key);
+            if (path != null) {
+                for (Node node : path) {
+                    node.top = offer(node.top, entry);
+                }
+            }
+        }
+    }
+
+    private void removeTerminal(String key, Entry entry) {
+        List<Node> path = path(key);
+        if (path == null) {
+            return;
+        }
+        path.get(path.size() - 1).removeTerminal(entry);
+        // Poda nós que ficaram sem sugestões e sem filhos
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            if (node.terminals != null || node.children.length > 0) {
+                break;
+            }
+            path.get(i - 1).removeChild(node);
+            path.remove(i);
+        }
+        recompute(path);
+    }
+
+    // Caminho da raiz até o nó onde a chave termina, ou null se ela não está na árvore
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            if (child == null || !key.startsWith(child.label, position)) {
+                return null;
+            }
+            path.add(child);
+            node = child;
+            position += child.label.length();
+        }
+        return path;
+    }
+
+    // De baixo para cima: cada nó junta suas sugestões com as listas (já corretas) dos filhos
+    private void recompute(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            List<Entry> candidates = new ArrayList<>();
+            if (node.terminals != null) {
+                candidates.addAll(node.terminals);
+            }
+            for (Node child : node.children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(RANKING);
+            Map<Entry, Boolean> seen = new IdentityHashMap<>();
+            List<Entry> top = new ArrayList<>(capacity);
+            for (Entry candidate : candidates) {
+                if (top.size() == capacity) {
+                    break;
+                }
+                if (seen.put(candidate, Boolean.TRUE) == null) {
+                    top.add(candidate);
+                }
+            }
+            node.top = top.toArray(NO_ENTRIES);
+        }
+    }
+
+    // Insere ou reposiciona a sugestão numa lista ordenada de até K itens
+    private Entry[] offer(Entry[] top, Entry entry) {
+        for (int i = 0; i < top.length; i++) {
+            if (top[i] == entry) {
+                while (i > 0 && RANKING.compare(top[i], top[i - 1]) < 0) {
+                    top[i] = top[i - 1];
+                    top[i - 1] = entry;
+                    i--;
+                }
+                return top;
+            }
+        }
+        if (top.length == capacity && RANKING.compare(entry, top[top.length - 1]) >= 0) {
+            return top;
+        }
+        int position = 0;
+        while (position < top.length && RANKING.compare(top[position], entry) < 0) {
+            position++;
+        }
+        Entry[] next = new Entry[Math.min(capacity, top.length + 1)];
+        System.arraycopy(top, 0, next, 0, position);
+        next[position] = entry;
+        System.arraycopy(top, position, next, position + 1, next.length - position - 1);
+        return next;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private String label;
+        // Ordenados pelo primeiro caractere do rótulo
+        private Node[] children = NO_CHILDREN;
+        // Sugestões cuja chave termina neste nó; null quando não há
+        private List<Entry> terminals;
+        private Entry[] top = NO_ENTRIES;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            int index = search(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        void addChild(Node child) {
+            int index = -search(child.label.charAt(0)) - 1;
+            Node[] next = new Node[children.length + 1];
+            System.arraycopy(children, 0, next, 0, index);
+            next[index] = child;
+            System.arraycopy(children, index, next, index + 1, children.length - index);
+            children = next;
+        }
+
+        void removeChild(Node child) {
+            int index = search(child.label.charAt(0));
+            Node[] next = new Node[children.length - 1];
+            System.arraycopy(children, 0, next, 0, index);
+            System.arraycopy(children, index + 1, next, index, children.length - index - 1);
+            children = next;
+        }
+
+        // Quebra a aresta do filho em "length" caracteres; o nó intermediário herda a lista do filho
+        Node split(Node child, int length) {
+            int index = search(child.label.charAt(0));
+            Node middle = new Node(child.label.substring(0, length));
+            child.label = child.label.substring(length);
+            middle.children = new Node[]{child};
+            middle.top = child.top.clone();
+            children[index] = middle;
+            return middle;
+        }
+
+        void addTerminal(Entry entry) {
+            if (terminals == null) {
+                terminals = new ArrayList<>(1);
+            }
+            if (!terminals.contains(entry)) {
+                terminals.add(entry);
+            }
+        }
+
+        void removeTerminal(Entry entry) {
+            if (terminals != null) {
+                terminals.remove(entry);
+                if (terminals.isEmpty()) {
+                    terminals = null;
+                }
+            }
+        }
+
+        private int search(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char value = children[middle].label.charAt(0);
+                if (value < first) {
+                    low = middle + 1;
+                } else if (value > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+    private static final class Doc {
+        private final Entry title;
+        private final Entry artist;
+        private final Entry album;
+        private long plays;
+
+        Doc(Entry title, Entry artist, Entry album, long plays) {
+            this.title = title;
+            this.artist = artist;
+            this.album = album;
+            this.plays = plays;
+        }
+
+        List<Entry> entries() {
+            List<Entry> result = new ArrayList<>(3);
+            if (title != null) {
+                result.add(title);
+            }
+            if (artist != null) {
+                result.add(artist);
+            }
+            if (album != null) {
+                result.add(album);
+            }
+            return result;
+        }
+    }
+
+    public static final class Entry {
+        private final Type type;
+        private final String text;
+        private final String[] keys;
+        private long plays;
+        private int count;
+        private boolean attached;
+
+        Entry(Type type, String key, String text) {
+            this.type = type;
+            this.text = text;
+            this.keys = keys(key);
+        }
+
+        // Chave completa e a partir de cada uma das primeiras palavras seguintes
+        private static String[] keys(String key) {
+            List<String> keys = new ArrayList<>();
+            keys.add(key);
+            int from = 0;
+            while (keys.size() <= MAX_WORD_ENTRIES) {
+                int space = key.indexOf(' ', from);
+                if (space < 0) {
+                    break;
+                }
+                String suffix = key.substring(space + 1);
+                if (!keys.contains(suffix)) {
+                    keys.add(suffix);
+                }
+                from = space + 1;
+            }
+            return keys.toArray(new String[0]);
+        }
+
+        String slot() {
+            return type.ordinal() + ":" + keys[0];
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        // Texto como cadastrado na primeira música que o usou
+        public String getText() {
+            return text;
+        }
+
+        // Soma das reproduções das músicas com este valor
+        public long getPlays() {
+            return plays;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+}
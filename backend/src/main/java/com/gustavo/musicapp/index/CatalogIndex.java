@@ -0,0 +1,24 @@
+package com.gustavo.musicapp.index;
+
+import com.gustavo.musicapp.model.Music;
+
+/**
+ * Estrutura em memória derivada do catálogo. É carregada na inicialização
+ * pelo CatalogIndexLoader e mantida atualizada pelos eventos de escrita.
+ */
+public interface CatalogIndex {
+
+    // Descarta o conteúdo antes de uma carga completa
+    void clear();
+
+    // Insere ou substitui a música no índice
+    void index(Music music);
+
+    void remove(Long musicId);
+
+    // Chamado quando a carga inicial termina
+    void markReady();
+
+    // Enquanto não estiver pronto, o serviço consulta o banco
+    boolean isReady();
+}
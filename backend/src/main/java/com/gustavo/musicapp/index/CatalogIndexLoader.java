@@ -0,0 +1,116 @@
+package com.gustavo.musicapp.index;
+
+import com.gustavo.musicapp.datasource.RoutingContext;
+import com.gustavo.musicapp.event.MusicChangedEvent;
+import com.gustavo.musicapp.model.Music;
+import com.gustavo.musicapp.repository.MusicRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Carrega todos os CatalogIndex com uma única varredura do catálogo e repassa
+ * para eles os eventos de escrita confirmados.
+ */
+@Component
+public class CatalogIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogIndexLoader.class);
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @Autowired
+    private List<CatalogIndex> indexes;
+
+    @Value("${app.music.index.load-batch-size:5000}")
+    private int batchSize;
+
+    // Eventos recebidos durante a carga, aplicados ao final dela
+    private final Queue<MusicChangedEvent> backlog = new ArrayDeque<>();
+    private boolean loaded;
+    private boolean failed;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread loader = new Thread(this::load, "catalog-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMusicChanged(MusicChangedEvent event) {
+        synchronized (backlog) {
+            if (failed) {
+                return;
+            }
+            if (!loaded) {
+                backlog.add(event);
+                return;
+            }
+        }
+        apply(event);
+    }
+
+    private void load() {
+        long started = System.currentTimeMillis();
+        try {
+            indexes.forEach(CatalogIndex::clear);
+            long lastId = 0;
+            long total = 0;
+            List<Music> batch;
+            do {
+                long after = lastId;
+                batch = RoutingContext.onPrimary(() ->
+                        musicRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, batchSize)));
+                for (Music music : batch) {
+                    for (CatalogIndex index : indexes) {
+                        index.index(music);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+                total += batch.size();
+            } while (batch.size() == batchSize);
+
+            synchronized (backlog) {
+                MusicChangedEvent event;
+                while ((event = backlog.poll()) != null) {
+                    apply(event);
+                }
+                loaded = true;
+            }
+            indexes.forEach(CatalogIndex::markReady);
+            log.info("Índices do catálogo carregados: {} músicas em {} ms", total, System.currentTimeMillis() - started);
+        } catch (RuntimeException ex) {
+            // Os índices continuam marcados como não prontos e o serviço usa o banco
+            log.error("Falha ao carregar os índices do catálogo", ex);
+            synchronized (backlog) {
+                failed = true;
+                backlog.clear();
+            }
+            indexes.forEach(CatalogIndex::clear);
+        }
+    }
+
+    private void apply(MusicChangedEvent event) {
+        for (CatalogIndex index : indexes) {
+            if (event.getType() == MusicChangedEvent.Type.DELETED) {
+                index.remove(event.getMusicId());
+            } else {
+                index.index(event.getMusic());
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.gustavo.musicapp.index;
+
+import com.gustavo.musicapp.model.Music;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pré-checagem de duplicatas para addMusic/updateMusic: filtros de Bloom sobre
+ * título + artista normalizados e sobre a URL.
+ *
+ * A normalização é mais grosseira que a comparação do banco (ignora caixa,
+ * acentos e pontuação), então um "não existe" do filtro vale também para o
+ * banco; "talvez exista" ainda é confirmado com a consulta. Casos que a
+ * collation do banco iguala e a normalização não (ex.: "ß" e "ss") e corridas
+ * entre inserções simultâneas são barrados pelas restrições únicas da tabela.
+ */
+@Component
+public class DuplicateFilter implements CatalogIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateFilter.class);
+
+    @Value("${app.music.duplicates.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${app.music.duplicates.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter titleArtist;
+    private volatile BloomFilter urls;
+    private volatile boolean ready;
+
+    private final LongAdder insertions = new LongAdder();
+    private final LongAdder skippedChecks = new LongAdder();
+    private final LongAdder databaseChecks = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        clear();
+    }
+
+    // false só quando a música com certeza não existe; antes da carga, sempre true
+    public boolean mightContainTitleAndArtist(String title, String artist) {
+        return check(titleArtist, titleArtistKey(title, artist));
+    }
+
+    public boolean mightContainUrl(String url) {
+        return check(urls, urlKey(url));
+    }
+
+    @Override
+    public void clear() {
+        ready = false;
+        titleArtist = new BloomFilter(expectedInsertions, falsePositiveRate);
+        urls = new BloomFilter(expectedInsertions, falsePositiveRate);
+        insertions.reset();
+    }
+
+    @Override
+    public void index(Music music) {
+        BloomFilter currentTitleArtist = titleArtist;
+        BloomFilter currentUrls = urls;
+        currentTitleArtist.put(titleArtistKey(music.getTitle(), music.getArtist()));
+        if (music.getUrl() != null) {
+            currentUrls.put(urlKey(music.getUrl()));
+        }
+        insertions.increment();
+        if (insertions.sum() == expectedInsertions + 1) {
+            log.warn("Filtro de duplicatas acima da capacidade ({} inserções); a taxa de falsos positivos vai subir. " +
+                    "Aumente app.music.duplicates.expected-insertions", expectedInsertions);
+        }
+    }
+
+    // Bloom não remove: a chave apagada vira falso positivo, confirmado no banco
+    @Override
+    public void remove(Long musicId) {
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Map<String, Object> getStats() {
+        BloomFilter current = titleArtist;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("insertions", insertions.sum());
+        stats.put("skippedChecks", skippedChecks.sum());
+        stats.put("databaseChecks", databaseChecks.sum());
+        stats.put("bitsPerFilter", current.getBitCount());
+        stats.put("hashFunctions", current.getHashCount());
+        stats.put("estimatedFalsePositiveRate", Math.pow(current.fillRatio(), current.getHashCount()));
+        return stats;
+    }
+
+    private boolean check(BloomFilter filter, String key) {
+        if (!ready || filter.mightContain(key)) {
+            databaseChecks.increment();
+            return true;
+        }
+        skippedChecks.increment();
+        return false;
+    }
+
+    private static String titleArtistKey(String title, String artist) {
+        return TextNormalizer.normalize(title) + '\u0000' + TextNormalizer.normalize(artist);
+    }
+
+    private static String urlKey(String url) {
+        return url.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,308 @@
+package com.gustavo.musicapp.index;
+
+import com.gustavo.musicapp.dto.FacetValue;
+import com.gustavo.musicapp.event.MusicPlayedEvent;
+import com.gustavo.musicapp.model.Music;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Facetas do catálogo (gênero, artista e álbum) com contagem de músicas e total
+ * de reproduções por valor.
+ *
+ * Cada faceta é um dicionário: o valor normalizado vira um código inteiro e as
+ * músicas guardam só os códigos. As listas ordenadas ficam num snapshot
+ * imutável, refeito quando o catálogo muda; mudanças apenas de reproduções
+ * refazem o snapshot no máximo a cada plays-refresh-ms.
+ */
+@Component
+public class FacetIndex implements CatalogIndex {
+
+    public static final String GENRE = "genre";
+    public static final String ARTIST = "artist";
+    public static final String ALBUM = "album";
+
+    public enum Order { VALUE, COUNT, PLAYS }
+
+    private static final String[] FACETS = {GENRE, ARTIST, ALBUM};
+
+    @Value("${app.music.facets.plays-refresh-ms:1000}")
+    private long playsRefreshMillis;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Dictionary[] dictionaries = {new Dictionary(), new Dictionary(), new Dictionary()};
+    private final Map<Long, Doc> docs = new HashMap<>();
+
+    private final AtomicLong structureVersion = new AtomicLong();
+    private final AtomicLong playsVersion = new AtomicLong();
+    private volatile Snapshot snapshot;
+    private volatile boolean ready;
+
+    /**
+     * Todas as facetas na ordem pedida, com no máximo "limit" valores cada
+     * (limit <= 0 devolve todos).
+     */
+    public Optional<Map<String, List<FacetValue>>> getFacets(Order order, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Snapshot current = currentSnapshot();
+        Map<String, List<FacetValue>> result = new LinkedHashMap<>();
+        for (int i = 0; i < FACETS.length; i++) {
+            List<FacetValue> values = current.ordered(i, order);
+            result.put(FACETS[i], limit > 0 && values.size() > limit ? values.subList(0, limit) : values);
+        }
+        return Optional.of(result);
+    }
+
+    // Valores distintos da faceta em ordem alfabética
+    public Optional<List<String>> values(String facet) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        List<FacetValue> values = currentSnapshot().ordered(facetIndex(facet), Order.VALUE);
+        List<String> names = new ArrayList<>(values.size());
+        for (FacetValue value : values) {
+            names.add(value.getValue());
+        }
+        return Optional.of(names);
+    }
+
+    @EventListener
+    public void onMusicPlayed(MusicPlayedEvent event) {
+        lock.readLock().lock();
+        try {
+            Doc doc = docs.get(event.getMusicId());
+            if (doc == null) {
+                return;
+            }
+            long previous = doc.plays.getAndAccumulate(event.getPlayCount(), Math::max);
+            long delta = event.getPlayCount() - previous;
+            if (delta > 0) {
+                for (int i = 0; i < FACETS.length; i++) {
+                    if (doc.codes[i] >= 0) {
+                        dictionaries[i].entries.get(doc.codes[i]).plays.add(delta);
+                    }
+                }
+                playsVersion.incrementAndGet();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            for (int i = 0; i < dictionaries.length; i++) {
+                dictionaries[i] = new Dictionary();
+            }
+            docs.clear();
+            snapshot = null;
+            structureVersion.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Music music) {
+        long plays = music.getPlayCount() == null ? 0 : music.getPlayCount();
+        lock.writeLock().lock();
+        try {
+            Doc previous = docs.remove(music.getId());
+            if (previous != null) {
+                // Eventos de atualização trazem o play_count do banco, que pode estar atrás
+                plays = Math.max(plays, previous.plays.get());
+                unapply(previous);
+            }
+            int[] codes = {
+                    dictionaries[0].encode(music.getGenre()),
+                    dictionaries[1].encode(music.getArtist()),
+                    dictionaries[2].encode(music.getAlbum())
+            };
+            Doc doc = new Doc(codes, plays);
+            apply(doc);
+            docs.put(music.getId(), doc);
+            structureVersion.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long musicId) {
+        lock.writeLock().lock();
+        try {
+            Doc previous = docs.remove(musicId);
+            if (previous != null) {
+                unapply(previous);
+                structureVersion.incrementAndGet();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void apply(Doc doc) {
+        long plays = doc.plays.get();
+        for (int i = 0; i < FACETS.length; i++) {
+            if (doc.codes[i] >= 0) {
+                Entry entry = dictionaries[i].entries.get(doc.codes[i]);
+                entry.count++;
+                entry.plays.add(plays);
+            }
+        }
+    }
+
+    private void unapply(Doc doc) {
+        long plays = doc.plays.get();
+        for (int i = 0; i < FACETS.length; i++) {
+            if (doc.codes[i] >= 0) {
+                Entry entry = dictionaries[i].entries.get(doc.codes[i]);
+                entry.count--;
+                entry.plays.add(-plays);
+            }
+        }
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        long structure = structureVersion.get();
+        long plays = playsVersion.get();
+        if (current != null && current.structureVersion == structure
+                && (current.playsVersion == plays || System.currentTimeMillis() - current.builtAt < playsRefreshMillis)) {
+            return current;
+        }
+        lock.readLock().lock();
+        try {
+            current = new Snapshot(structureVersion.get(), playsVersion.get(), dictionaries);
+        } finally {
+            lock.readLock().unlock();
+        }
+        snapshot = current;
+        return current;
+    }
+
+    private static int facetIndex(String facet) {
+        for (int i = 0; i < FACETS.length; i++) {
+            if (FACETS[i].equals(facet)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Faceta desconhecida: " + facet);
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<Entry> entries = new ArrayList<>();
+
+        // -1 representa valor ausente
+        int encode(String value) {
+            if (value == null || value.isBlank()) {
+                return -1;
+            }
+            String key = TextNormalizer.fold(value).trim();
+            Integer code = codes.get(key);
+            if (code == null) {
+                code = entries.size();
+                codes.put(key, code);
+                entries.add(new Entry(value, key));
+            }
+            return code;
+        }
+    }
+
+    private static final class Entry {
+        private final String value;
+        private final String sortKey;
+        private long count;
+        private final LongAdder plays = new LongAdder();
+
+        Entry(String value, String sortKey) {
+            this.value = value;
+            this.sortKey = sortKey;
+        }
+    }
+
+    private static final class Doc {
+        private final int[] codes;
+        private final AtomicLong plays;
+
+        Doc(int[] codes, long plays) {
+            this.codes = codes;
+            this.plays = new AtomicLong(plays);
+        }
+    }
+
+    private static final class Snapshot {
+        private final long structureVersion;
+        private final long playsVersion;
+        private final long builtAt = System.currentTimeMillis();
+        private final List<List<FacetValue>> byValue = new ArrayList<>();
+        private final List<List<FacetValue>> byCount = new ArrayList<>();
+        private final List<List<FacetValue>> byPlays = new ArrayList<>();
+
+        Snapshot(long structureVersion, long playsVersion, Dictionary[] dictionaries) {
+            this.structureVersion = structureVersion;
+            this.playsVersion = playsVersion;
+            for (Dictionary dictionary : dictionaries) {
+                List<Entry> live = new ArrayList<>();
+                for (Entry entry : dictionary.entries) {
+                    if (entry.count > 0) {
+                        live.add(entry);
+                    }
+                }
+                live.sort(Comparator.comparing((Entry entry) -> entry.sortKey));
+
+                List<FacetValue> values = new ArrayList<>(live.size());
+                for (Entry entry : live) {
+                    values.add(new FacetValue(entry.value, entry.count, entry.plays.sum()));
+                }
+                List<FacetValue> counts = new ArrayList<>(values);
+                counts.sort(Comparator.comparingLong(FacetValue::getCount).reversed());
+                List<FacetValue> plays = new ArrayList<>(values);
+                plays.sort(Comparator.comparingLong(FacetValue::getPlays).reversed());
+
+                byValue.add(List.copyOf(values));
+                byCount.add(List.copyOf(counts));
+                byPlays.add(List.copyOf(plays));
+            }
+        }
+
+        List<FacetValue> ordered(int facet, Order order) {
+            switch (order) {
+                case COUNT:
+                    return byCount.get(facet);
+                case PLAYS:
+                    return byPlays.get(facet);
+                default:
+                    return byValue.get(facet);
+            }
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.gustavo.musicapp.index;
+
+import com.gustavo.musicapp.dto.MusicFilter;
+import com.gustavo.musicapp.event.MusicPlayedEvent;
+import com.gustavo.musicapp.model.Music;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índices bitmap (Roaring) para o filtro combinado: gênero e artista
+ * codificados por dicionário, ano exato, duração em faixas de 10 segundos e
+ * reproduções em faixas de potência de 2. O id da música é a posição no
+ * bitmap.
+ *
+ * Faixas de duração e reproduções que caem só em parte no intervalo pedido são
+ * refinadas com o valor exato de cada música. Ids acima de Integer.MAX_VALUE
+ * não cabem no bitmap: o índice deixa de responder e o serviço usa o banco.
+ */
+@Component
+public class FilterIndex implements CatalogIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FilterIndex.class);
+
+    private static final int DURATION_BUCKET_SECONDS = 10;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, RoaringBitmap> genres = new HashMap<>();
+    private final Map<String, RoaringBitmap> artists = new HashMap<>();
+    private final TreeMap<Integer, RoaringBitmap> years = new TreeMap<>();
+    private final TreeMap<Integer, RoaringBitmap> durations = new TreeMap<>();
+    private final RoaringBitmap[] plays = new RoaringBitmap[65];
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Integer, Doc> docs = new HashMap<>();
+
+    private volatile boolean ready;
+    private volatile boolean overflow;
+
+    /**
+     * Músicas que atendem ao filtro, ou vazio se o índice ainda não pode
+     * responder. O bitmap devolvido é uma cópia do chamador.
+     */
+    public Optional<RoaringBitmap> evaluate(MusicFilter filter) {
+        if (!ready || overflow) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> predicates = new ArrayList<>();
+            if (!filter.getGenres().isEmpty()) {
+                predicates.add(anyOf(genres, filter.getGenres()));
+            }
+            if (!filter.getArtists().isEmpty()) {
+                predicates.add(anyOf(artists, filter.getArtists()));
+            }
+            if (filter.hasYearRange()) {
+                int from = filter.getYearFrom() == null ? Integer.MIN_VALUE : filter.getYearFrom();
+                int to = filter.getYearTo() == null ? Integer.MAX_VALUE : filter.getYearTo();
+                predicates.add(from > to ? new RoaringBitmap() : RoaringBitmap.or(years.subMap(from, true, to, true).values().iterator()));
+            }
+            if (filter.hasDurationRange()) {
+                predicates.add(durationRange(filter.getDurationFrom(), filter.getDurationTo()));
+            }
+            if (filter.getMinPlays() != null) {
+                predicates.add(minPlays(filter.getMinPlays()));
+            }
+
+            if (predicates.isEmpty()) {
+                return Optional.of(all.clone());
+            }
+            RoaringBitmap result = predicates.get(0);
+            for (int i = 1; i < predicates.size(); i++) {
+                if (filter.isMatchAll()) {
+                    result.and(predicates.get(i));
+                } else {
+                    result.or(predicates.get(i));
+                }
+            }
+            return Optional.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids da página em ordem crescente, sem percorrer as posições anteriores
+    public static List<Long> page(RoaringBitmap matches, long offset, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        if (offset >= matches.getLongCardinality()) {
+            return ids;
+        }
+        PeekableIntIterator it = matches.getIntIterator();
+        it.advanceIfNeeded(matches.select((int) offset));
+        while (it.hasNext() && ids.size() < limit) {
+            ids.add((long) it.next());
+        }
+        return ids;
+    }
+
+    @EventListener
+    public void onMusicPlayed(MusicPlayedEvent event) {
+        Long id = event.getMusicId();
+        if (id > Integer.MAX_VALUE) {
+            return;
+        }
+        lock.readLock().lock();
+        Doc doc;
+        try {
+            doc = docs.get(id.intValue());
+            if (doc == null) {
+                return;
+            }
+            long current = doc.plays.accumulateAndGet(event.getPlayCount(), Math::max);
+            if (playsBucket(current) == doc.playsBucket) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Mudou de faixa: move o id a partir da faixa em que ele está de fato
+        lock.writeLock().lock();
+        try {
+            if (docs.get(id.intValue()) == doc) {
+                int bucket = playsBucket(doc.plays.get());
+                if (bucket != doc.playsBucket) {
+                    remove(plays, doc.playsBucket, id.intValue());
+                    add(plays, bucket, id.intValue());
+                    doc.playsBucket = bucket;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            overflow = false;
+            genres.clear();
+            artists.clear();
+            years.clear();
+            durations.clear();
+            Arrays.fill(plays, null);
+            all.clear();
+            docs.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Music music) {
+        if (music.getId() > Integer.MAX_VALUE) {
+            if (!overflow) {
+                log.warn("Id {} não cabe no índice bitmap; filtros passam a consultar o banco", music.getId());
+            }
+            overflow = true;
+            return;
+        }
+        int id = music.getId().intValue();
+        long playCount = music.getPlayCount() == null ? 0 : music.getPlayCount();
+        lock.writeLock().lock();
+        try {
+            Doc previous = docs.remove(id);
+            if (previous != null) {
+                // Eventos de atualização trazem o play_count do banco, que pode estar atrás
+                playCount = Math.max(playCount, previous.plays.get());
+                unindex(id, previous);
+            }
+            Doc doc = new Doc(music, playCount);
+            docs.put(id, doc);
+            all.add(id);
+            if (doc.genre != null) {
+                genres.computeIfAbsent(doc.genre, key -> new RoaringBitmap()).add(id);
+            }
+            if (doc.artist != null) {
+                artists.computeIfAbsent(doc.artist, key -> new RoaringBitmap()).add(id);
+            }
+            if (doc.year != null) {
+                years.computeIfAbsent(doc.year, key -> new RoaringBitmap()).add(id);
+            }
+            if (doc.duration != null) {
+                durations.computeIfAbsent(durationBucket(doc.duration), key -> new RoaringBitmap()).add(id);
+            }
+            add(plays, doc.playsBucket, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long musicId) {
+        if (musicId > Integer.MAX_VALUE) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Doc previous = docs.remove(musicId.intValue());
+            if (previous != null) {
+                unindex(musicId.intValue(), previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        lock.writeLock().lock();
+        try {
+            // Compacta sequências de ids consecutivos depois da carga
+            all.runOptimize();
+            genres.values().forEach(RoaringBitmap::runOptimize);
+            artists.values().forEach(RoaringBitmap::runOptimize);
+            years.values().forEach(RoaringBitmap::runOptimize);
+            durations.values().forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready && !overflow;
+    }
+
+    private void unindex(int id, Doc doc) {
+        all.remove(id);
+        if (doc.genre != null) {
+            remove(genres, doc.genre, id);
+        }
+        if (doc.artist != null) {
+            remove(artists, doc.artist, id);
+        }
+        if (doc.year != null) {
+            remove(years, doc.year, id);
+        }
+        if (doc.duration != null) {
+            remove(durations, durationBucket(doc.duration), id);
+        }
+        remove(plays, doc.playsBucket, id);
+    }
+
+    private static RoaringBitmap anyOf(Map<String, RoaringBitmap> dictionary, Collection<String> values) {
+        List<RoaringBitmap> matches = new ArrayList<>(values.size());
+        for (String value : values) {
+            RoaringBitmap bitmap = dictionary.get(key(value));
+            if (bitmap != null) {
+                matches.add(bitmap);
+            }
+        }
+        return RoaringBitmap.or(matches.iterator());
+    }
+
+    private RoaringBitmap durationRange(Integer fromSeconds, Integer toSeconds) {
+        int from = fromSeconds == null ? 0 : Math.max(0, fromSeconds);
+        int to = toSeconds == null ? Integer.MAX_VALUE : toSeconds;
+        RoaringBitmap result = new RoaringBitmap();
+        if (from > to) {
+            return result;
+        }
+        for (Map.Entry<Integer, RoaringBitmap> bucket : durations.subMap(durationBucket(from), true, durationBucket(to), true).entrySet()) {
+            long start = bucket.getKey();
+            long end = start + DURATION_BUCKET_SECONDS - 1;
+            if (start >= from && end <= to) {
+                result.or(bucket.getValue());
+            } else {
+                for (int id : bucket.getValue()) {
+                    int duration = docs.get(id).duration;
+                    if (duration >= from && duration <= to) {
+                        result.add(id);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private RoaringBitmap minPlays(long min) {
+        if (min <= 0) {
+            return all.clone();
+        }
+        int edge = playsBucket(min);
+        List<RoaringBitmap> above = new ArrayList<>();
+        for (int bucket = edge + 1; bucket < plays.length; bucket++) {
+            if (plays[bucket] != null) {
+                above.add(plays[bucket]);
+            }
+        }
+        RoaringBitmap result = RoaringBitmap.or(above.iterator());
+        if (plays[edge] != null) {
+            for (int id : plays[edge]) {
+                if (docs.get(id).plays.get() >= min) {
+                    result.add(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int durationBucket(int seconds) {
+        return Math.floorDiv(seconds, DURATION_BUCKET_SECONDS) * DURATION_BUCKET_SECONDS;
+    }
+
+    // 0 -> 0; [2^(b-1), 2^b - 1] -> b
+    private static int playsBucket(long playCount) {
+        return playCount <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(playCount);
+    }
+
+    private static void add(RoaringBitmap[] buckets, int bucket, int id) {
+        if (buckets[bucket] == null) {
+            buckets[bucket] = new RoaringBitmap();
+        }
+        buckets[bucket].add(id);
+    }
+
+    private static void remove(RoaringBitmap[] buckets, int bucket, int id) {
+        if (buckets[bucket] != null) {
+            buckets[bucket].remove(id);
+        }
+    }
+
+    private static <K> void remove(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private static String key(String value) {
+        // Mesma chave das facetas: sem acento e sem diferença de caixa
+        return TextNormalizer.fold(value).trim();
+    }
+
+    private static final class Doc {
+        private final String genre;
+        private final String artist;
+        private final Integer year;
+        private final Integer duration;
+        private final AtomicLong plays;
+        // Faixa de reproduções onde o id está no bitmap; só muda com o write lock
+        private int playsBucket;
+
+        Doc(Music music, long playCount) {
+            this.genre = music.getGenre() == null || music.getGenre().isBlank() ? null : key(music.getGenre());
+            this.artist = music.getArtist() == null || music.getArtist().isBlank() ? null : key(music.getArtist());
+            this.year = music.getReleaseYear();
+            this.duration = music.getDurationSeconds();
+            this.plays = new AtomicLong(playCount);
+            this.playsBucket = playsBucket(playCount);
+        }
+    }
+}
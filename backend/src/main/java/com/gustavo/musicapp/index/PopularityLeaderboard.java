@@ -0,0 +1,214 @@
+package com.gustavo.musicapp.index;
+
+import com.gustavo.musicapp.datasource.RoutingContext;
+import com.gustavo.musicapp.event.MusicPlayedEvent;
+import com.gustavo.musicapp.model.Music;
+import com.gustavo.musicapp.repository.MusicRepository;
+import com.gustavo.musicapp.service.PlayCountBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Top-K das músicas mais reproduzidas, mantido incrementalmente.
+ *
+ * Um TreeSet ordenado por (reproduções desc, id asc) com um mapa id -> entrada
+ * ao lado. Plays de músicas fora do top com contagem abaixo do piso são
+ * descartados sem pegar o lock. Quando uma música sai do ranking por remoção
+ * não sabemos qual é a próxima, então o ranking fica incompleto até ser
+ * recarregado do banco.
+ */
+@Component
+public class PopularityLeaderboard implements CatalogIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PopularityLeaderboard.class);
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::getPlayCount).reversed()
+            .thenComparing(Entry::getMusicId);
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @Autowired
+    private PlayCountBuffer playCountBuffer;
+
+    @Value("${app.music.popular.top-k:100}")
+    private int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeSet<Entry> ranking = new TreeSet<>(RANKING);
+    private final ConcurrentHashMap<Long, Entry> members = new ConcurrentHashMap<>();
+
+    // Menor contagem do ranking quando cheio; abaixo disso um play não entra
+    private volatile long floor = -1;
+    private volatile boolean ready;
+    private volatile boolean complete;
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * As "limit" músicas mais tocadas, ou vazio se o ranking não consegue
+     * responder (limite acima de K, carga pendente ou ranking incompleto).
+     */
+    public Optional<List<Entry>> top(int limit) {
+        if (!ready || limit > capacity || (!complete && limit > members.size())) {
+            return Optional.empty();
+        }
+        lock.lock();
+        try {
+            List<Entry> result = new ArrayList<>(Math.min(limit, ranking.size()));
+            Iterator<Entry> it = ranking.iterator();
+            while (it.hasNext() && result.size() < limit) {
+                result.add(it.next());
+            }
+            return Optional.of(result);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onMusicPlayed(MusicPlayedEvent event) {
+        offer(event.getMusic(), event.getPlayCount());
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            ready = false;
+            complete = false;
+            ranking.clear();
+            members.clear();
+            floor = -1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void index(Music music) {
+        Entry current = members.get(music.getId());
+        long playCount = music.getPlayCount() == null ? 0 : music.getPlayCount();
+        // Eventos de atualização trazem o play_count do banco, que pode estar atrás do ranking
+        offer(music, current == null ? playCount : Math.max(playCount, current.getPlayCount()));
+    }
+
+    @Override
+    public void remove(Long musicId) {
+        lock.lock();
+        try {
+            Entry removed = members.remove(musicId);
+            if (removed != null) {
+                ranking.remove(removed);
+                complete = false;
+                updateFloor();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        complete = true;
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Scheduled(fixedDelayString = "${app.music.popular.reseed-interval-ms:5000}")
+    public void reseedIfIncomplete() {
+        if (!ready || complete) {
+            return;
+        }
+        try {
+            List<Music> musics = RoutingContext.onPrimary(() ->
+                    musicRepository.findAllByOrderByPlayCountDesc(PageRequest.of(0, capacity)));
+            for (Music music : musics) {
+                long persisted = music.getPlayCount() == null ? 0 : music.getPlayCount();
+                index(withCount(music, persisted + playCountBuffer.pendingFor(music.getId())));
+            }
+            complete = true;
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao recarregar o ranking de populares", ex);
+        }
+    }
+
+    private static Music withCount(Music music, long playCount) {
+        music.setPlayCount(playCount);
+        return music;
+    }
+
+    private void offer(Music music, long playCount) {
+        Long id = music.getId();
+        if (!members.containsKey(id) && playCount <= floor) {
+            return;
+        }
+        lock.lock();
+        try {
+            Entry previous = members.get(id);
+            if (previous != null) {
+                ranking.remove(previous);
+            } else if (ranking.size() >= capacity && playCount <= floor) {
+                return;
+            }
+
+            Entry entry = new Entry(music, playCount);
+            ranking.add(entry);
+            members.put(id, entry);
+            if (ranking.size() > capacity) {
+                Entry evicted = ranking.pollLast();
+                members.remove(evicted.getMusicId());
+            }
+            updateFloor();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void updateFloor() {
+        floor = ranking.size() >= capacity ? ranking.last().getPlayCount() : -1;
+    }
+
+    public static final class Entry {
+        private final Music music;
+        private final long playCount;
+
+        Entry(Music music, long playCount) {
+            this.music = music;
+            this.playCount = playCount;
+        }
+
+        public Music getMusic() {
+            return music;
+        }
+
+        public Long getMusicId() {
+            return music.getId();
+        }
+
+        public long getPlayCount() {
+            return playCount;
+        }
+    }
+}
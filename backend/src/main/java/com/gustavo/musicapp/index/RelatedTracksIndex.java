@@ -0,0 +1,588 @@
+package com.gustavo.musicapp.index;
+
+import com.gustavo.musicapp.event.PlayCountsFlushedEvent;
+import com.gustavo.musicapp.model.Music;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongFunction;
+
+/**
+ * Listas pré-calculadas de músicas relacionadas (top-N vizinhos por música).
+ *
+ * A similaridade soma pesos por mesmo álbum, mesmo artista e mesmo gênero,
+ * mais a proximidade do ano de lançamento e da duração. Os candidatos de uma
+ * música são as do mesmo artista e as do mesmo gênero com ano mais próximo,
+ * até max-candidates, então nunca se compara o catálogo inteiro par a par.
+ *
+ * Depois da carga, um ForkJoinPool calcula as listas de todas as músicas a
+ * partir de uma cópia das características, fora do lock, num mapa novo que
+ * substitui o anterior no fim. Um índice reverso guarda em quais listas cada
+ * música aparece: uma escrita marca como sujas a música alterada, seus
+ * candidatos e as listas que a contêm, recalculadas em lote a cada
+ * refresh-ms. A consulta é só uma leitura no mapa; música ainda sem lista é
+ * calculada na hora a partir das características em memória.
+ */
+@Component
+public class RelatedTracksIndex implements CatalogIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatedTracksIndex.class);
+
+    private static final double SAME_ALBUM = 4.0;
+    private static final double SAME_ARTIST = 3.0;
+    private static final double SAME_GENRE = 2.0;
+    private static final double YEAR_PROXIMITY = 1.0;
+    private static final double DURATION_PROXIMITY = 0.5;
+    private static final int YEAR_RANGE = 10;
+    private static final int DURATION_RANGE_SECONDS = 120;
+    private static final int NO_YEAR = 0;
+
+    // Músicas por tarefa antes de parar de dividir
+    private static final int FORK_THRESHOLD = 256;
+
+    @Value("${app.music.related.top-n:20}")
+    private int topN;
+
+    @Value("${app.music.related.max-candidates:500}")
+    private int maxCandidates;
+
+    @Value("${app.music.related.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Track> tracks = new HashMap<>();
+    private final Map<String, Set<Long>> byArtist = new HashMap<>();
+    private final Map<String, TreeMap<Integer, Set<Long>>> byGenre = new HashMap<>();
+    private final Features live = new Features(tracks, byArtist, byGenre);
+
+    // Trocados juntos, com o write lock, no fim do cálculo completo
+    private volatile Lists lists = new Lists();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Músicas alteradas enquanto o cálculo completo roda sobre a cópia
+    private final Set<Long> changedDuringBuild = new HashSet<>();
+    private boolean building;
+    private volatile boolean ready;
+    private volatile boolean built;
+    // Muda sempre depois de as listas mudarem; vai no validador HTTP
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long generatedAt = System.currentTimeMillis();
+    private volatile long lastBuildMillis;
+    private volatile int lastRefreshSize;
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Ids das músicas mais parecidas, da mais para a menos similar.
+     */
+    public List<Long> related(Long musicId, int limit) {
+        long[] list = lists.neighbors.get(musicId);
+        if (list == null) {
+            lock.readLock().lock();
+            try {
+                list = tracks.containsKey(musicId) ? compute(live, musicId) : new long[0];
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        List<Long> ids = new ArrayList<>(Math.min(limit, list.length));
+        for (int i = 0; i < list.length && ids.size() < limit; i++) {
+            ids.add(list[i]);
+        }
+        return ids;
+    }
+
+    public int getTopN() {
+        return topN;
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public long generatedAt() {
+        return generatedAt;
+    }
+
+    // Popularidade só desempata; as listas não são recalculadas por reproduções
+    @EventListener
+    public void onPlayCountsFlushed(PlayCountsFlushedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.getDeltas().forEach((id, delta) -> {
+                Track track = tracks.get(id);
+                if (track != null) {
+                    track.plays += delta;
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            built = false;
+            tracks.clear();
+            byArtist.clear();
+            byGenre.clear();
+            lists = new Lists();
+            dirty.clear();
+            changedDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        published();
+    }
+
+    @Override
+    public void index(Music music) {
+        Track track = new Track(music);
+        lock.writeLock().lock();
+        try {
+            Track previous = tracks.remove(music.getId());
+            if (previous != null) {
+                track.plays = Math.max(track.plays, previous.plays);
+                markCandidatesDirty(previous);
+                unlink(previous);
+            }
+            tracks.put(track.id, track);
+            link(track);
+            markChanged(track.id);
+            markCandidatesDirty(track);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long musicId) {
+        lock.writeLock().lock();
+        try {
+            Track previous = tracks.remove(musicId);
+            if (previous != null) {
+                markCandidatesDirty(previous);
+                unlink(previous);
+            }
+            // O refresh tira a lista da música removida e recalcula as que a contêm
+            markChanged(musicId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+        long started = System.currentTimeMillis();
+        Features snapshot;
+        long[] ids;
+        lock.writeLock().lock();
+        try {
+            snapshot = snapshot();
+            ids = snapshot.tracks.keySet().stream().mapToLong(Long::longValue).toArray();
+            building = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Lists next = new Lists();
+        pool.invoke(new BuildTask(ids, 0, ids.length, id -> compute(snapshot, id), next));
+
+        lock.writeLock().lock();
+        try {
+            // A cópia não viu as escritas feitas durante o cálculo
+            for (Long id : changedDuringBuild) {
+                dirty.addAll(next.listedIn.getOrDefault(id, Set.of()));
+            }
+            changedDuringBuild.clear();
+            building = false;
+            lists = next;
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        published();
+        lastBuildMillis = System.currentTimeMillis() - started;
+        log.info("Listas de músicas relacionadas calculadas para {} músicas em {} ms", next.neighbors.size(), lastBuildMillis);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Scheduled(fixedDelayString = "${app.music.related.refresh-ms:2000}")
+    public void refreshDirty() {
+        if (!built || dirty.isEmpty()) {
+            return;
+        }
+        List<Long> batch = new ArrayList<>(dirty);
+        batch.forEach(dirty::remove);
+
+        // Só os candidatos das músicas do lote são copiados; a pontuação roda fora do lock
+        Map<Long, Track> targets = new HashMap<>();
+        Map<Long, Track[]> candidates = new HashMap<>();
+        List<Long> removed = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : batch) {
+                Track track = tracks.get(id);
+                if (track == null) {
+                    removed.add(id);
+                } else {
+                    targets.put(id, track);
+                    candidates.put(id, candidateTracks(live, track));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Lists current = lists;
+        removed.forEach(current::remove);
+        long[] ids = targets.keySet().stream().mapToLong(Long::longValue).toArray();
+        pool.invoke(new BuildTask(ids, 0, ids.length, id -> top(targets.get(id), candidates.get(id)), current));
+        lastRefreshSize = batch.size();
+        published();
+    }
+
+    private void published() {
+        generatedAt = System.currentTimeMillis();
+        generation.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("tracks", lists.neighbors.size());
+        stats.put("dirtyTracks", dirty.size());
+        stats.put("lastBuildMillis", lastBuildMillis);
+        stats.put("lastRefreshSize", lastRefreshSize);
+        stats.put("parallelism", pool.getParallelism());
+        return stats;
+    }
+
+    // Divide o intervalo de ids até FORK_THRESHOLD; não toca nas estruturas protegidas pelo lock
+    private static final class BuildTask extends RecursiveAction {
+        private final long[] ids;
+        private final int from;
+        private final int to;
+        private final LongFunction<long[]> function;
+        private final Lists target;
+
+        BuildTask(long[] ids, int from, int to, LongFunction<long[]> function, Lists target) {
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+            this.function = function;
+            this.target = target;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FORK_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    target.put(ids[i], function.apply(ids[i]));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BuildTask(ids, from, middle, function, target),
+                    new BuildTask(ids, middle, to, function, target));
+        }
+    }
+
+    // Top-N de uma música a partir das características dadas (cópia, ou as vivas com o read lock)
+    private long[] compute(Features features, long musicId) {
+        Track track = features.tracks.get(musicId);
+        return top(track, candidateTracks(features, track));
+    }
+
+    private Track[] candidateTracks(Features features, Track track) {
+        Set<Long> ids = candidates(features, track);
+        ids.remove(track.id);
+        Track[] result = new Track[ids.size()];
+        int i = 0;
+        for (Long id : ids) {
+            result[i++] = features.tracks.get(id);
+        }
+        return result;
+    }
+
+    // Top-N por similaridade entre os candidatos
+    private long[] top(Track track, Track[] candidates) {
+        Track[] best = new Track[Math.min(topN, candidates.length)];
+        double[] scores = new double[best.length];
+        int size = 0;
+        for (Track candidate : candidates) {
+            double score = similarity(track, candidate);
+            if (score <= 0) {
+                continue;
+            }
+            // Inserção ordenada num arranjo de N posições
+            int position = size;
+            while (position > 0 && better(score, candidate, scores[position - 1], best[position - 1])) {
+                position--;
+            }
+            if (position >= best.length) {
+                continue;
+            }
+            int moved = Math.min(size, best.length - 1) - position;
+            System.arraycopy(best, position, best, position + 1, moved);
+            System.arraycopy(scores, position, scores, position + 1, moved);
+            best[position] = candidate;
+            scores[position] = score;
+            size = Math.min(size + 1, best.length);
+        }
+
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = best[i].id;
+        }
+        return ids;
+    }
+
+    private static boolean better(double score, Track track, double otherScore, Track other) {
+        if (score != otherScore) {
+            return score > otherScore;
+        }
+        if (track.plays != other.plays) {
+            return track.plays > other.plays;
+        }
+        return track.id < other.id;
+    }
+
+    private static double similarity(Track a, Track b) {
+        double score = 0;
+        if (a.artist != null && a.artist.equals(b.artist)) {
+            score += SAME_ARTIST;
+            if (a.album != null && a.album.equals(b.album)) {
+                score += SAME_ALBUM;
+            }
+        }
+        if (a.genre != null && a.genre.equals(b.genre)) {
+            score += SAME_GENRE;
+        }
+        if (a.year != NO_YEAR && b.year != NO_YEAR) {
+            score += YEAR_PROXIMITY * Math.max(0, 1 - Math.abs(a.year - b.year) / (double) YEAR_RANGE);
+        }
+        if (a.duration > 0 && b.duration > 0) {
+            score += DURATION_PROXIMITY * Math.max(0, 1 - Math.abs(a.duration - b.duration) / (double) DURATION_RANGE_SECONDS);
+        }
+        return score;
+    }
+
+    // Mesmo artista e, do mesmo gênero, os de ano mais próximo
+    private Set<Long> candidates(Features features, Track track) {
+        Set<Long> candidates = new LinkedHashSet<>();
+        if (track.artist != null) {
+            for (Long id : features.byArtist.getOrDefault(track.artist, Set.of())) {
+                if (candidates.size() >= maxCandidates) {
+                    break;
+                }
+                candidates.add(id);
+            }
+        }
+        TreeMap<Integer, Set<Long>> years = track.genre == null ? null : features.byGenre.get(track.genre);
+        if (years != null) {
+            int limit = candidates.size() + maxCandidates;
+            NavigableMap<Integer, Set<Long>> below = years.headMap(track.year, true).descendingMap();
+            NavigableMap<Integer, Set<Long>> above = years.tailMap(track.year, false);
+            Iterator<Map.Entry<Integer, Set<Long>>> down = below.entrySet().iterator();
+            Iterator<Map.Entry<Integer, Set<Long>>> up = above.entrySet().iterator();
+            Map.Entry<Integer, Set<Long>> nextDown = down.hasNext() ? down.next() : null;
+            Map.Entry<Integer, Set<Long>> nextUp = up.hasNext() ? up.next() : null;
+            while (candidates.size() < limit && (nextDown != null || nextUp != null)) {
+                boolean takeDown = nextUp == null
+                        || (nextDown != null && track.year - nextDown.getKey() <= nextUp.getKey() - track.year);
+                Set<Long> ids = takeDown ? nextDown.getValue() : nextUp.getValue();
+                for (Long id : ids) {
+                    if (candidates.size() >= limit) {
+                        break;
+                    }
+                    candidates.add(id);
+                }
+                if (takeDown) {
+                    nextDown = down.hasNext() ? down.next() : null;
+                } else {
+                    nextUp = up.hasNext() ? up.next() : null;
+                }
+            }
+        }
+        return candidates;
+    }
+
+    // Chamado com o write lock: quem pode passar a ter esta música na lista
+    private void markCandidatesDirty(Track track) {
+        if (ready) {
+            dirty.addAll(candidates(live, track));
+        }
+    }
+
+    // Chamado com o write lock: a própria música e quem já a tem na lista
+    private void markChanged(long musicId) {
+        if (!ready) {
+            return;
+        }
+        dirty.add(musicId);
+        dirty.addAll(lists.listedIn.getOrDefault(musicId, Set.of()));
+        if (building) {
+            changedDuringBuild.add(musicId);
+        }
+    }
+
+    // Chamado com o read ou o write lock
+    private Features snapshot() {
+        Map<String, Set<Long>> artists = new HashMap<>(byArtist.size() * 2);
+        byArtist.forEach((artist, ids) -> artists.put(artist, new LinkedHashSet<>(ids)));
+        Map<String, TreeMap<Integer, Set<Long>>> genres = new HashMap<>(byGenre.size() * 2);
+        byGenre.forEach((genre, years) -> {
+            TreeMap<Integer, Set<Long>> copy = new TreeMap<>();
+            years.forEach((year, ids) -> copy.put(year, new LinkedHashSet<>(ids)));
+            genres.put(genre, copy);
+        });
+        return new Features(new HashMap<>(tracks), artists, genres);
+    }
+
+    private void link(Track track) {
+        if (track.artist != null) {
+            byArtist.computeIfAbsent(track.artist, key -> new LinkedHashSet<>()).add(track.id);
+        }
+        if (track.genre != null) {
+            byGenre.computeIfAbsent(track.genre, key -> new TreeMap<>())
+                    .computeIfAbsent(track.year, key -> new LinkedHashSet<>())
+                    .add(track.id);
+        }
+    }
+
+    private void unlink(Track track) {
+        if (track.artist != null) {
+            Set<Long> ids = byArtist.get(track.artist);
+            if (ids != null && ids.remove(track.id) && ids.isEmpty()) {
+                byArtist.remove(track.artist);
+            }
+        }
+        if (track.genre != null) {
+            TreeMap<Integer, Set<Long>> years = byGenre.get(track.genre);
+            Set<Long> ids = years == null ? null : years.get(track.year);
+            if (ids != null && ids.remove(track.id) && ids.isEmpty()) {
+                years.remove(track.year);
+                if (years.isEmpty()) {
+                    byGenre.remove(track.genre);
+                }
+            }
+        }
+    }
+
+    private static String key(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return TextNormalizer.fold(value).trim();
+    }
+
+    private static final class Features {
+        private final Map<Long, Track> tracks;
+        private final Map<String, Set<Long>> byArtist;
+        private final Map<String, TreeMap<Integer, Set<Long>>> byGenre;
+
+        Features(Map<Long, Track> tracks, Map<String, Set<Long>> byArtist,
+                 Map<String, TreeMap<Integer, Set<Long>>> byGenre) {
+            this.tracks = tracks;
+            this.byArtist = byArtist;
+            this.byGenre = byGenre;
+        }
+    }
+
+    // Listas calculadas e o índice reverso: id -> músicas cuja lista o contém
+    private static final class Lists {
+        private final ConcurrentHashMap<Long, long[]> neighbors = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, Set<Long>> listedIn = new ConcurrentHashMap<>();
+
+        // Cada id é gravado por uma só tarefa de cada vez
+        void put(long musicId, long[] list) {
+            unlist(musicId, neighbors.put(musicId, list));
+            for (long neighbor : list) {
+                // Dentro do compute: unlist pode estar tirando o último id do mesmo conjunto
+                listedIn.compute(neighbor, (key, ids) -> {
+                    Set<Long> set = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                    set.add(musicId);
+                    return set;
+                });
+            }
+        }
+
+        void remove(long musicId) {
+            unlist(musicId, neighbors.remove(musicId));
+        }
+
+        private void unlist(long musicId, long[] previous) {
+            if (previous == null) {
+                return;
+            }
+            for (long neighbor : previous) {
+                listedIn.computeIfPresent(neighbor, (key, ids) -> {
+                    ids.remove(musicId);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    private static final class Track {
+        private final long id;
+        private final String artist;
+        // Artista + álbum: álbuns homônimos de artistas diferentes não contam
+        private final String album;
+        private final String genre;
+        private final int year;
+        private final int duration;
+        // Escrita só com o write lock; lida também pelas tarefas do cálculo, fora dele
+        private volatile long plays;
+
+        Track(Music music) {
+            this.id = music.getId();
+            this.artist = key(music.getArtist());
+            String albumKey = key(music.getAlbum());
+            this.album = albumKey == null ? null : artist + "\u0000" + albumKey;
+            this.genre = key(music.getGenre());
+            this.year = music.getReleaseYear() == null ? NO_YEAR : music.getReleaseYear();
+            this.duration = music.getDurationSeconds() == null ? 0 : music.getDurationSeconds();
+            this.plays = music.getPlayCount() == null ? 0 : music.getPlayCount();
+        }
+    }
+}
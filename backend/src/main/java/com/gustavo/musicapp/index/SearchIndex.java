@@ -0,0 +1,286 @@
+package com.gustavo.musicapp.index;
+
+import com.gustavo.musicapp.model.Music;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido sobre título, artista e álbum usado pela busca textual.
+ *
+ * Cada termo normalizado aponta para as músicas em que aparece e para os campos
+ * onde foi encontrado. Todos os termos da consulta precisam casar (AND); termos
+ * com pelo menos MIN_PREFIX_LENGTH caracteres também casam por prefixo.
+ * O score soma, por termo, peso do campo x idf, com bônus para casamento exato.
+ */
+@Component
+public class SearchIndex implements CatalogIndex {
+
+    private static final int TITLE = 1;
+    private static final int ARTIST = 2;
+    private static final int ALBUM = 4;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final float PREFIX_PENALTY = 0.5f;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private volatile boolean ready;
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Music music) {
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        addTerms(terms, music.getTitle(), TITLE);
+        addTerms(terms, music.getArtist(), ARTIST);
+        addTerms(terms, music.getAlbum(), ALBUM);
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(music.getId());
+            String[] documentTerms = new String[terms.size()];
+            int[] slots = new int[terms.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> term : terms.entrySet()) {
+                documentTerms[i] = term.getKey();
+                slots[i] = postings.computeIfAbsent(term.getKey(), key -> new Postings()).add(music.getId(), term.getValue());
+                i++;
+            }
+            documents.put(music.getId(), new Document(documentTerms, slots));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long musicId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(musicId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Busca ordenada por relevância (score desc, id asc).
+     * Retorna vazio quando o índice não pode responder e o banco deve ser usado.
+     */
+    public Optional<Hits> search(String query, long offset, int limit) {
+        List<String> tokens = TextNormalizer.tokenize(query);
+        if (!ready || tokens.isEmpty()) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String token : tokens) {
+                scores = matchToken(token, scores);
+                if (scores.isEmpty()) {
+                    return Optional.of(new Hits(List.of(), 0));
+                }
+            }
+            return Optional.of(new Hits(topIds(scores, offset, limit), scores.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Float> matchToken(String token, Map<Long, Float> previous) {
+        NavigableMap<String, Postings> matches = token.length() >= MIN_PREFIX_LENGTH
+                ? postings.subMap(token, true, token + Character.MAX_VALUE, false)
+                : postings.subMap(token, true, token, true);
+
+        Map<Long, Float> tokenScores = new HashMap<>();
+        int documentCount = Math.max(1, documents.size());
+        for (Map.Entry<String, Postings> entry : matches.entrySet()) {
+            Postings list = entry.getValue();
+            float idf = (float) Math.log(1.0 + (double) documentCount / list.size);
+            float exactness = entry.getKey().equals(token) ? 1f : PREFIX_PENALTY;
+            for (int i = 0; i < list.size; i++) {
+                long id = list.ids[i];
+                if (previous != null && !previous.containsKey(id)) {
+                    continue;
+                }
+                float score = fieldWeight(list.fields[i]) * idf * exactness;
+                tokenScores.merge(id, score, Math::max);
+            }
+        }
+
+        if (previous != null) {
+            tokenScores.replaceAll((id, score) -> score + previous.get(id));
+        }
+        return tokenScores;
+    }
+
+    private static List<Long> topIds(Map<Long, Float> scores, long offset, int limit) {
+        if (offset >= scores.size() || limit <= 0) {
+            return List.of();
+        }
+        Comparator<Map.Entry<Long, Float>> ranking = Map.Entry.<Long, Float>comparingByValue().reversed()
+                .thenComparing(Map.Entry.<Long, Float>comparingByKey());
+        int keep = (int) Math.min(scores.size(), offset + limit);
+
+        // Heap com o pior candidato no topo, limitado a offset + limit
+        PriorityQueue<Map.Entry<Long, Float>> heap = new PriorityQueue<>(keep, ranking.reversed());
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            if (heap.size() < keep) {
+                heap.add(entry);
+            } else if (ranking.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+
+        List<Map.Entry<Long, Float>> ranked = new ArrayList<>(heap);
+        ranked.sort(ranking);
+        List<Long> ids = new ArrayList<>(limit);
+        for (int i = (int) offset; i < ranked.size(); i++) {
+            ids.add(ranked.get(i).getKey());
+        }
+        return ids;
+    }
+
+    private static float fieldWeight(int fields) {
+        float weight = 0;
+        if ((fields & TITLE) != 0) weight += 3;
+        if ((fields & ARTIST) != 0) weight += 2;
+        if ((fields & ALBUM) != 0) weight += 1;
+        return weight;
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int field) {
+        for (String token : TextNormalizer.tokenize(text)) {
+            terms.merge(token, field, (a, b) -> a | b);
+        }
+    }
+
+    private void removeDocument(Long musicId) {
+        Document document = documents.remove(musicId);
+        if (document == null) {
+            return;
+        }
+        for (int i = 0; i < document.terms.length; i++) {
+            String term = document.terms[i];
+            Postings list = postings.get(term);
+            int slot = document.slots[i];
+            list.removeAt(slot);
+            if (list.size == 0) {
+                postings.remove(term);
+            } else if (slot < list.size) {
+                // O último da lista foi para a posição liberada
+                documents.get(list.ids[slot]).moveSlot(term, slot);
+            }
+        }
+    }
+
+    /**
+     * Termos de uma música e a posição dela na lista de cada termo, para a
+     * remoção não precisar varrer listas de termos comuns.
+     */
+    private static final class Document {
+        private final String[] terms;
+        private final int[] slots;
+
+        Document(String[] terms, int[] slots) {
+            this.terms = terms;
+            this.slots = slots;
+        }
+
+        void moveSlot(String term, int slot) {
+            for (int i = 0; i < terms.length; i++) {
+                if (terms[i].equals(term)) {
+                    slots[i] = slot;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Lista de ocorrências de um termo: ids e campos em arrays paralelos, sem
+     * ordem (a remoção troca o item pelo último).
+     */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private byte[] fields = new byte[4];
+        private int size;
+
+        // Devolve a posição do id na lista
+        int add(long id, int fieldMask) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            ids[size] = id;
+            fields[size] = (byte) fieldMask;
+            return size++;
+        }
+
+        void removeAt(int slot) {
+            size--;
+            ids[slot] = ids[size];
+            fields[slot] = fields[size];
+        }
+    }
+
+    public static final class Hits {
+        private final List<Long> ids;
+        private final long total;
+
+        public Hits(List<Long> ids, long total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.gustavo.musicapp.index;
+
+import com.gustavo.musicapp.event.MusicChangedEvent;
+import com.gustavo.musicapp.event.MusicPlayedEvent;
+import com.gustavo.musicapp.exception.InvalidParameterException;
+import com.gustavo.musicapp.journal.PlayJournal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ranking de músicas em alta na última hora, dia e semana.
+ *
+ * Cada música com reprodução na última semana tem três anéis de contadores
+ * (12 x 5 min, 24 x 1 h e 28 x 6 h); um play só incrementa o balde atual de
+ * cada anel, e baldes antigos são zerados quando o anel dá a volta. A
+ * pontuação soma os baldes da janela com peso 0,5^(idade / meia-vida), então
+ * o ranking nunca agrega o histórico no banco.
+ *
+ * O top-K de cada janela é recalculado a cada refresh-ms. Músicas sem
+ * reprodução na semana saem do mapa, e acima de max-tracked ficam só as de
+ * maior pontuação semanal. Na subida os contadores são reconstruídos com os
+ * instantes guardados no PlayJournal.
+ */
+@Component
+public class TrendingTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingTracker.class);
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+
+    public enum Window {
+        HOUR(5 * MINUTE, 12, 20 * MINUTE),
+        DAY(TrendingTracker.HOUR, 24, 6 * TrendingTracker.HOUR),
+        WEEK(6 * TrendingTracker.HOUR, 28, 48 * TrendingTracker.HOUR);
+
+        private final long bucketMillis;
+        private final int buckets;
+        private final long halfLifeMillis;
+
+        Window(long bucketMillis, int buckets, long halfLifeMillis) {
+            this.bucketMillis = bucketMillis;
+            this.buckets = buckets;
+            this.halfLifeMillis = halfLifeMillis;
+        }
+
+        public static Window fromValue(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidParameterException("Janela inválida: " + value + " (use hour, day ou week)", ex);
+            }
+        }
+    }
+
+    private static final Comparator<Entry> BY_SCORE = Comparator.comparingDouble(Entry::getScore)
+            .thenComparing(Entry::getMusicId, Comparator.reverseOrder());
+
+    @Autowired
+    private PlayJournal playJournal;
+
+    @Value("${app.music.trending.top-k:100}")
+    private int capacity;
+
+    @Value("${app.music.trending.max-tracked:50000}")
+    private int maxTracked;
+
+    private final ConcurrentHashMap<Long, Counters> tracks = new ConcurrentHashMap<>();
+    private volatile Map<Window, List<Entry>> snapshot = emptySnapshot();
+
+    // Plays anteriores a este instante vêm do diário, não dos eventos
+    private volatile long liveFrom = Long.MAX_VALUE;
+
+    // Até K músicas da janela, da maior para a menor pontuação
+    public List<Entry> top(Window window, int limit) {
+        List<Entry> ranking = snapshot.get(window);
+        return ranking.subList(0, Math.max(0, Math.min(limit, ranking.size())));
+    }
+
+    @EventListener
+    public void onMusicPlayed(MusicPlayedEvent event) {
+        long playedAt = event.getPlayedAt().toEpochMilli();
+        if (playedAt >= liveFrom) {
+            record(event.getMusicId(), playedAt);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMusicChanged(MusicChangedEvent event) {
+        if (event.getType() == MusicChangedEvent.Type.DELETED) {
+            tracks.remove(event.getMusicId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long startedAt = System.currentTimeMillis();
+        long since = startedAt - Window.WEEK.bucketMillis * Window.WEEK.buckets;
+        liveFrom = startedAt;
+        try {
+            playJournal.replay((musicId, epochMillis) -> {
+                if (epochMillis >= since && epochMillis < startedAt) {
+                    record(musicId, epochMillis);
+                }
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao reconstruir o ranking de músicas em alta pelo diário", ex);
+        }
+        refresh();
+        log.info("Ranking de músicas em alta carregado em {} ms ({} músicas ativas)",
+                System.currentTimeMillis() - startedAt, tracks.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.music.trending.refresh-ms:5000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        Map<Window, PriorityQueue<Entry>> heaps = new EnumMap<>(Window.class);
+        for (Window window : Window.values()) {
+            heaps.put(window, new PriorityQueue<>(BY_SCORE));
+        }
+        // Fila só para cortar o excesso acima de max-tracked
+        boolean trim = tracks.size() > maxTracked;
+        PriorityQueue<Entry> weekly = new PriorityQueue<>(BY_SCORE);
+
+        for (Map.Entry<Long, Counters> track : tracks.entrySet()) {
+            Counters counters = track.getValue();
+            double[] scores = new double[Window.values().length];
+            long[] plays = new long[scores.length];
+            synchronized (counters) {
+                for (Window window : Window.values()) {
+                    scores[window.ordinal()] = counters.score(window, now);
+                    plays[window.ordinal()] = counters.plays(window, now);
+                }
+            }
+            if (plays[Window.WEEK.ordinal()] == 0) {
+                // Sem reprodução na semana: libera a memória
+                tracks.remove(track.getKey(), counters);
+                continue;
+            }
+            for (Window window : Window.values()) {
+                if (plays[window.ordinal()] > 0) {
+                    offer(heaps.get(window), new Entry(track.getKey(), scores[window.ordinal()], plays[window.ordinal()]), capacity);
+                }
+            }
+            if (trim) {
+                offer(weekly, new Entry(track.getKey(), scores[Window.WEEK.ordinal()], 0), maxTracked);
+            }
+        }
+
+        if (trim) {
+            Set<Long> keep = new HashSet<>();
+            weekly.forEach(entry -> keep.add(entry.getMusicId()));
+            tracks.keySet().removeIf(id -> !keep.contains(id));
+        }
+
+        Map<Window, List<Entry>> next = new EnumMap<>(Window.class);
+        heaps.forEach((window, heap) -> {
+            List<Entry> ranking = new ArrayList<>(heap);
+            ranking.sort(BY_SCORE.reversed());
+            next.put(window, List.copyOf(ranking));
+        });
+        snapshot = next;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedTracks", tracks.size());
+        stats.put("maxTracked", maxTracked);
+        for (Window window : Window.values()) {
+            stats.put(window.name().toLowerCase(Locale.ROOT) + "Ranked", snapshot.get(window).size());
+        }
+        return stats;
+    }
+
+    private void record(Long musicId, long epochMillis) {
+        Counters counters = tracks.computeIfAbsent(musicId, id -> new Counters());
+        synchronized (counters) {
+            counters.add(epochMillis);
+        }
+    }
+
+    private static void offer(PriorityQueue<Entry> heap, Entry entry, int limit) {
+        if (heap.size() < limit) {
+            heap.add(entry);
+        } else if (limit > 0 && BY_SCORE.compare(entry, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(entry);
+        }
+    }
+
+    private static Map<Window, List<Entry>> emptySnapshot() {
+        Map<Window, List<Entry>> empty = new EnumMap<>(Window.class);
+        for (Window window : Window.values()) {
+            empty.put(window, List.of());
+        }
+        return empty;
+    }
+
+    // Três anéis por música; acessado com o próprio objeto como monitor
+    private static final class Counters {
+        private final int[][] counts = new int[Window.values().length][];
+        // Número absoluto do balde guardado em cada posição, para zerar posições vencidas
+        private final int[][] slots = new int[Window.values().length][];
+
+        Counters() {
+            for (Window window : Window.values()) {
+                counts[window.ordinal()] = new int[window.buckets];
+                slots[window.ordinal()] = new int[window.buckets];
+            }
+        }
+
+        void add(long epochMillis) {
+            for (Window window : Window.values()) {
+                int bucket = (int) (epochMillis / window.bucketMillis);
+                int position = bucket % window.buckets;
+                int[] ringCounts = counts[window.ordinal()];
+                int[] ringSlots = slots[window.ordinal()];
+                if (ringSlots[position] == bucket) {
+                    ringCounts[position]++;
+                } else if (ringSlots[position] < bucket) {
+                    ringSlots[position] = bucket;
+                    ringCounts[position] = 1;
+                }
+                // Posição já reaproveitada por um balde mais novo: play antigo demais para o anel
+            }
+        }
+
+        long plays(Window window, long now) {
+            int current = (int) (now / window.bucketMillis);
+            int[] ringCounts = counts[window.ordinal()];
+            int[] ringSlots = slots[window.ordinal()];
+            long total = 0;
+            for (int i = 0; i < window.buckets; i++) {
+                if (live(ringSlots[i], current, window)) {
+                    total += ringCounts[i];
+                }
+            }
+            return total;
+        }
+
+        // Cada balde pesa pela idade do seu ponto médio
+        double score(Window window, long now) {
+            int current = (int) (now / window.bucketMillis);
+            int[] ringCounts = counts[window.ordinal()];
+            int[] ringSlots = slots[window.ordinal()];
+            double score = 0;
+            for (int i = 0; i < window.buckets; i++) {
+                if (live(ringSlots[i], current, window) && ringCounts[i] > 0) {
+                    long middle = ringSlots[i] * window.bucketMillis + window.bucketMillis / 2;
+                    double age = Math.max(0, now - middle);
+                    score += ringCounts[i] * Math.pow(0.5, age / window.halfLifeMillis);
+                }
+            }
+            return score;
+        }
+
+        private static boolean live(int slot, int current, Window window) {
+            return slot > current - window.buckets && slot <= current;
+        }
+    }
+
+    public static final class Entry {
+        private final Long musicId;
+        private final double score;
+        private final long plays;
+
+        Entry(Long musicId, double score, long plays) {
+            this.musicId = musicId;
+            this.score = score;
+            this.plays = plays;
+        }
+
+        public Long getMusicId() {
+            return musicId;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        // Reproduções dentro da janela, sem decaimento
+        public long getPlays() {
+            return plays;
+        }
+    }
+}
@@ -0,0 +1,502 @@
+package com.gustavo.musicapp.journal;
+
+import com.gustavo.musicapp.datasource.RoutingContext;
+import com.gustavo.musicapp.repository.MusicRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Diário append-only das reproduções, em segmentos mapeados em memória.
+ *
+ * Cada reprodução é um registro de 20 bytes (id da música, instante, CRC32C)
+ * escrito direto no MappedByteBuffer do segmento ativo: o append é uma cópia
+ * para o cache de páginas, sem syscall. Uma thread própria faz o fsync a cada
+ * sync-interval-ms, cobrindo de uma vez todos os registros do intervalo (group
+ * commit). Queda só da JVM não perde registros; queda do sistema perde no
+ * máximo esse intervalo.
+ *
+ * Segmento cheio é selado e outro é criado. A compactação dobra os segmentos
+ * selados mais antigos num snapshot com o total por música e apaga os
+ * arquivos, então os instantes de cada reprodução ficam disponíveis só nos
+ * retained-segments mais recentes. Na criação do diário o snapshot parte do
+ * play_count do banco, e snapshot + segmentos reconstroem o play_count.
+ */
+@Component
+public class PlayJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayJournal.class);
+
+    private static final int RECORD_SIZE = 20;
+
+    private static final String SEGMENT_PREFIX = "plays-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_FILE = "counts.snapshot";
+    private static final int SNAPSHOT_MAGIC = 0x504A5331; // "PJS1"
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @Value("${app.music.journal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.music.journal.path:data/play-journal}")
+    private String path;
+
+    @Value("${app.music.journal.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${app.music.journal.sync-interval-ms:10}")
+    private long syncIntervalMs;
+
+    @Value("${app.music.journal.retained-segments:4}")
+    private int retainedSegments;
+
+    private Path directory;
+    private ScheduledExecutorService syncer;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    // Replay lê segmentos selados; a compactação não pode apagá-los no meio da leitura
+    private final ReentrantReadWriteLock compactionLock = new ReentrantReadWriteLock();
+    private final List<Segment> sealed = new CopyOnWriteArrayList<>();
+    private volatile Segment active;
+    private volatile long syncedSequence;
+    private volatile long snapshotSequence;
+
+    // Métricas
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder syncCount = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+    private volatile long lastSyncMicros;
+
+    @FunctionalInterface
+    public interface PlayConsumer {
+        void accept(long musicId, long epochMillis);
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        directory = Paths.get(path).toAbsolutePath().normalize();
+        Files.createDirectories(directory);
+
+        List<Path> files = listSegments();
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (files.isEmpty() && !Files.exists(snapshot)) {
+            writeBaseline();
+        }
+        snapshotSequence = readSnapshot(null);
+
+        for (int i = 0; i < files.size() - 1; i++) {
+            sealed.add(Segment.open(files.get(i), FileChannel.MapMode.READ_ONLY));
+        }
+        if (files.isEmpty()) {
+            active = Segment.create(segmentPath(snapshotSequence), snapshotSequence, segmentCapacity());
+        } else {
+            active = Segment.open(files.get(files.size() - 1), FileChannel.MapMode.READ_WRITE);
+            active.truncateTail();
+        }
+        syncedSequence = active.end();
+        log.info("Diário de reproduções em {}: {} segmentos, próxima sequência {}",
+                directory, sealed.size() + 1, active.end());
+
+        syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "play-journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(this::sync, syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void close() {
+        if (syncer != null) {
+            syncer.shutdown();
+            sync();
+        }
+    }
+
+    /**
+     * Grava uma reprodução (chamado pelo PlayCountBuffer junto com o
+     * incremento em memória). Não espera o fsync; falhas de E/S descartam o
+     * registro e são contadas em droppedRecords, sem derrubar a requisição.
+     */
+    public void append(long musicId, long epochMillis) {
+        if (!enabled) {
+            return;
+        }
+        appendLock.lock();
+        try {
+            Segment segment = active;
+            if (segment.count == segment.capacity) {
+                segment = rotate();
+            }
+            segment.write(musicId, epochMillis);
+        } catch (IOException ex) {
+            dropped.increment();
+            log.error("Falha ao criar segmento do diário de reproduções", ex);
+            return;
+        } finally {
+            appendLock.unlock();
+        }
+        appended.increment();
+    }
+
+    /**
+     * Percorre, em ordem, as reproduções ainda guardadas nos segmentos (as
+     * anteriores à última compactação estão só no snapshot de totais).
+     */
+    public void replay(PlayConsumer consumer) {
+        if (!enabled) {
+            return;
+        }
+        compactionLock.readLock().lock();
+        try {
+            for (Segment segment : segments()) {
+                segment.forEach(consumer);
+            }
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Sequência que o próximo registro vai receber
+    public long nextSequence() {
+        appendLock.lock();
+        try {
+            return active.end();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Total de reproduções por música (snapshot + segmentos) até a sequência
+     * devolvida por cutoff, que roda com a compactação bloqueada: o snapshot
+     * lido depois não pode ter absorvido registros além do corte.
+     */
+    public Map<Long, Long> replayCounts(LongSupplier cutoff) {
+        if (!enabled) {
+            throw new IllegalStateException("Diário de reproduções desativado (app.music.journal.enabled)");
+        }
+        compactionLock.readLock().lock();
+        try {
+            long until = cutoff.getAsLong();
+            Map<Long, Long> counts = new HashMap<>();
+            readSnapshot(counts);
+            for (Segment segment : segments()) {
+                segment.forEachBefore(until, (musicId, epochMillis) -> counts.merge(musicId, 1L, Long::sum));
+            }
+            return counts;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Falha ao ler o snapshot do diário de reproduções", ex);
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.music.journal.compaction-interval-ms:60000}")
+    public void compact() {
+        if (!enabled || sealed.size() <= retainedSegments) {
+            return;
+        }
+        compactionLock.writeLock().lock();
+        try {
+            List<Segment> folded = new ArrayList<>(sealed.subList(0, sealed.size() - retainedSegments));
+            Map<Long, Long> counts = new HashMap<>();
+            readSnapshot(counts);
+            for (Segment segment : folded) {
+                segment.forEach((musicId, epochMillis) -> counts.merge(musicId, 1L, Long::sum));
+            }
+            long next = folded.get(folded.size() - 1).end();
+            writeSnapshot(counts, next);
+            snapshotSequence = next;
+
+            sealed.removeAll(folded);
+            for (Segment segment : folded) {
+                Files.deleteIfExists(segment.file);
+            }
+            compactions.increment();
+            log.info("Diário de reproduções compactado até a sequência {} ({} segmentos)", next, folded.size());
+        } catch (IOException ex) {
+            log.warn("Falha ao compactar o diário de reproduções, nova tentativa no próximo ciclo", ex);
+        } finally {
+            compactionLock.writeLock().unlock();
+        }
+    }
+
+    // Group commit: um force cobre tudo que foi escrito desde o anterior
+    private void sync() {
+        Segment segment = active;
+        long target = segment.end();
+        if (target == syncedSequence) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            segment.buffer.force();
+            syncedSequence = target;
+            syncCount.increment();
+            lastSyncMicros = (System.nanoTime() - started) / 1_000;
+        } catch (RuntimeException ex) {
+            log.warn("Falha no fsync do diário de reproduções", ex);
+        }
+    }
+
+    // Chamado com appendLock
+    private Segment rotate() throws IOException {
+        Segment full = active;
+        full.buffer.force();
+        Segment next = Segment.create(segmentPath(full.end()), full.end(), segmentCapacity());
+        sealed.add(full);
+        active = next;
+        syncedSequence = full.end();
+        return next;
+    }
+
+    private List<Segment> segments() {
+        List<Segment> all;
+        appendLock.lock();
+        try {
+            all = new ArrayList<>(sealed);
+            all.add(active);
+        } finally {
+            appendLock.unlock();
+        }
+        return all;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        // Nome com a sequência inicial em 20 dígitos: ordem lexicográfica = ordem do diário
+        files.sort(null);
+        return files;
+    }
+
+    private Path segmentPath(long base) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, base, SEGMENT_SUFFIX));
+    }
+
+    private int segmentCapacity() {
+        return (int) Math.min(Integer.MAX_VALUE / RECORD_SIZE, (long) segmentSizeMb * 1024 * 1024 / RECORD_SIZE);
+    }
+
+    // Primeiro uso: as reproduções anteriores ao diário entram como totais do banco
+    private void writeBaseline() throws IOException {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : RoutingContext.onPrimary(musicRepository::findPlayCounts)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        writeSnapshot(counts, 0);
+        log.info("Diário de reproduções criado com o play_count atual de {} músicas", counts.size());
+    }
+
+    private void writeSnapshot(Map<Long, Long> counts, long nextSequence) throws IOException {
+        Path target = directory.resolve(SNAPSHOT_FILE);
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream raw = Channels.newOutputStream(channel);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(raw, crc)));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(nextSequence);
+            out.writeInt(counts.size());
+            for (Map.Entry<Long, Long> entry : counts.entrySet()) {
+                out.writeLong(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+            out.flush();
+            new DataOutputStream(raw).writeLong(crc.getValue());
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Sequência coberta pelo snapshot; acumula os totais em counts quando não for null
+    private long readSnapshot(Map<Long, Long> counts) throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        CRC32C crc = new CRC32C();
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file))) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(raw, crc));
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Snapshot do diário de reproduções inválido: " + file);
+            }
+            long nextSequence = in.readLong();
+            if (counts == null) {
+                return nextSequence;
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                counts.merge(in.readLong(), in.readLong(), Long::sum);
+            }
+            long expected = crc.getValue();
+            if (new DataInputStream(raw).readLong() != expected) {
+                throw new IOException("Checksum do snapshot do diário de reproduções não confere: " + file);
+            }
+            return nextSequence;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        if (!enabled) {
+            return stats;
+        }
+        Segment segment = active;
+        stats.put("segments", sealed.size() + 1);
+        stats.put("nextSequence", segment.end());
+        stats.put("snapshotSequence", snapshotSequence);
+        stats.put("appendedRecords", appended.sum());
+        stats.put("droppedRecords", dropped.sum());
+        stats.put("unsyncedRecords", segment.end() - syncedSequence);
+        stats.put("syncCount", syncCount.sum());
+        stats.put("lastSyncMicros", lastSyncMicros);
+        stats.put("compactions", compactions.sum());
+        return stats;
+    }
+
+    // CRC32C dos 16 bytes de id e instante, calculado direto sobre o mapeamento
+    private static int checksum(MappedByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, 16));
+        return (int) crc.getValue();
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final long base;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        // Registros publicados; escrito só com appendLock
+        private volatile int count;
+
+        private Segment(Path file, long base, MappedByteBuffer buffer) {
+            this.file = file;
+            this.base = base;
+            this.buffer = buffer;
+            this.capacity = buffer.capacity() / RECORD_SIZE;
+        }
+
+        static Segment create(Path file, long base, int capacity) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // O mapeamento continua válido depois de fechar o canal
+                return new Segment(file, base, channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE));
+            }
+        }
+
+        static Segment open(Path file, FileChannel.MapMode mode) throws IOException {
+            String name = file.getFileName().toString();
+            long base = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                    ? new StandardOpenOption[]{StandardOpenOption.READ}
+                    : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE};
+            try (FileChannel channel = FileChannel.open(file, options)) {
+                long size = channel.size() - channel.size() % RECORD_SIZE;
+                Segment segment = new Segment(file, base, channel.map(mode, 0, size));
+                segment.count = segment.validRecords();
+                return segment;
+            }
+        }
+
+        long end() {
+            return base + count;
+        }
+
+        void write(long musicId, long epochMillis) {
+            int offset = count * RECORD_SIZE;
+            buffer.putLong(offset, musicId);
+            buffer.putLong(offset + 8, epochMillis);
+            buffer.putInt(offset + 16, checksum(buffer, offset));
+            count++;
+        }
+
+        void forEach(PlayConsumer consumer) {
+            forEachBefore(Long.MAX_VALUE, consumer);
+        }
+
+        // Só os registros com sequência menor que until
+        void forEachBefore(long until, PlayConsumer consumer) {
+            int limit = (int) Math.max(0, Math.min(count, until - base));
+            for (int i = 0; i < limit; i++) {
+                int offset = i * RECORD_SIZE;
+                consumer.accept(buffer.getLong(offset), buffer.getLong(offset + 8));
+            }
+        }
+
+        // Registros válidos até o primeiro zerado ou rasgado por uma queda
+        private int validRecords() {
+            for (int i = 0; i < capacity; i++) {
+                int offset = i * RECORD_SIZE;
+                if (buffer.getInt(offset + 16) != checksum(buffer, offset)) {
+                    return i;
+                }
+            }
+            return capacity;
+        }
+
+        // Zera o que sobrou depois do último registro válido: páginas gravadas fora
+        // de ordem antes da queda não podem reaparecer depois dos novos registros
+        void truncateTail() {
+            for (int offset = count * RECORD_SIZE; offset < capacity * RECORD_SIZE; offset++) {
+                if (buffer.get(offset) != 0) {
+                    buffer.put(offset, (byte) 0);
+                }
+            }
+            buffer.force();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.gustavo.musicapp.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+
+/**
+ * Tempo (music.repository.calls) e linhas retornadas (music.repository.rows)
+ * de cada método do MusicRepository, e log das chamadas acima do limite de
+ * consulta lenta.
+ *
+ * Métodos que retornam Stream só medem a abertura do cursor; a leitura
+ * acontece depois, fora da chamada.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(RepositoryMetricsAspect.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.music.metrics.slow-query-threshold-ms:200}")
+    private long slowQueryThresholdMillis;
+
+    // Medidores por método, para não montar o Id a cada chamada
+    private final ConcurrentHashMap<String, Meters> meters = new ConcurrentHashMap<>();
+
+    @Around("this(com.gustavo.musicapp.repository.MusicRepository)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String method = signature.getName();
+        Meters methodMeters = meters.computeIfAbsent(method, this::register);
+
+        long started = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable ex) {
+            methodMeters.failure.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+        long elapsed = System.nanoTime() - started;
+        methodMeters.success.record(elapsed, TimeUnit.NANOSECONDS);
+
+        long rows = rows(result, signature.getMethod().isAnnotationPresent(Modifying.class));
+        if (rows >= 0) {
+            methodMeters.rows.record(rows);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        if (elapsedMillis >= slowQueryThresholdMillis) {
+            log.warn("Consulta lenta: MusicRepository.{} levou {} ms ({} linhas)",
+                    method, elapsedMillis, rows >= 0 ? rows : "?");
+        }
+        return result;
+    }
+
+    private Meters register(String method) {
+        return new Meters(timer(method, "success"), timer(method, "error"),
+                DistributionSummary.builder("music.repository.rows")
+                        .description("Linhas retornadas ou alteradas por método do MusicRepository")
+                        .tag("method", method)
+                        .register(meterRegistry));
+    }
+
+    private Timer timer(String method, String outcome) {
+        return Timer.builder("music.repository.calls")
+                .description("Tempo das chamadas ao MusicRepository")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // -1 quando o retorno não é um conjunto de linhas (contagens, booleanos, Stream)
+    private static long rows(Object result, boolean modifying) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (modifying && result instanceof Number affected) {
+            return affected.longValue();
+        }
+        if (result == null || result instanceof Number || result instanceof Boolean
+                || result instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        return 1;
+    }
+
+    private static final class Meters {
+        private final Timer success;
+        private final Timer failure;
+        private final DistributionSummary rows;
+
+        Meters(Timer success, Timer failure, DistributionSummary rows) {
+            this.success = success;
+            this.failure = failure;
+            this.rows = rows;
+        }
+    }
+}
@@ -15,7 +15,14 @@ import java.util.Objects;
 @Table(name = "musics", indexes = {
     @Index(name = "idx_artist", columnList = "artist"),
     @Index(name = "idx_album", columnList = "album"),
-    @Index(name = "idx_title", columnList = "title")
+    @Index(name = "idx_title", columnList = "title"),
+    @Index(name = "idx_created_at", columnList = "created_at"),
+    @Index(name = "idx_play_count", columnList = "play_count"),
+    @Index(name = "idx_release_year", columnList = "release_year"),
+    @Index(name = "idx_duration_seconds", columnList = "duration_seconds")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_music_title_artist", columnNames = {"title", "artist"}),
+    @UniqueConstraint(name = "uk_music_url", columnNames = {"url"})
 })
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Music {
@@ -38,7 +45,7 @@ public class Music {
     @Column(length = 150)
     private String album;
     
-    @Column(unique = true, length = 500)
+    @Column(length = 500)
     private String url;  // Link da música armazenada
     
     @Column(name = "duration_seconds")
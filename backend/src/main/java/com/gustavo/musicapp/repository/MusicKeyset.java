@@ -0,0 +1,100 @@
+package com.gustavo.musicapp.repository;
+
+import com.gustavo.musicapp.model.Music;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+
+/**
+ * Posição na paginação por keyset: campo de ordenação, direção e os valores
+ * (chave de ordenação + id) da última linha entregue. lastId nulo indica a
+ * primeira página.
+ */
+public class MusicKeyset {
+
+    // play_count e created_at aceitam null: o cursor e a consulta usam estes
+    // valores no lugar, senão as linhas com null somem das páginas
+    public static final long NULL_PLAY_COUNT = 0L;
+    public static final LocalDateTime NULL_CREATED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public enum Field {
+        TITLE("title"),
+        CREATED_AT("createdAt"),
+        PLAY_COUNT("playCount");
+
+        private final String property;
+
+        Field(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public static Field fromProperty(String property) {
+            for (Field field : values()) {
+                if (field.property.equalsIgnoreCase(property)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Campo de ordenação não suportado: " + property);
+        }
+
+        Object valueOf(Music music) {
+            switch (this) {
+                case TITLE:
+                    return music.getTitle();
+                case CREATED_AT:
+                    return music.getCreatedAt() == null ? NULL_CREATED_AT : music.getCreatedAt();
+                default:
+                    return music.getPlayCount() == null ? NULL_PLAY_COUNT : music.getPlayCount();
+            }
+        }
+    }
+
+    private final Field field;
+    private final Sort.Direction direction;
+    private final Object lastValue;
+    private final Long lastId;
+
+    public MusicKeyset(Field field, Sort.Direction direction, Object lastValue, Long lastId) {
+        this.field = field;
+        this.direction = direction;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    public static MusicKeyset first(Field field, Sort.Direction direction) {
+        return new MusicKeyset(field, direction, null, null);
+    }
+
+    // Posição logo após a música informada
+    public MusicKeyset after(Music music) {
+        return new MusicKeyset(field, direction, field.valueOf(music), music.getId());
+    }
+
+    public boolean isFirstPage() {
+        return lastId == null;
+    }
+
+    public boolean isAscending() {
+        return direction.isAscending();
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public Object getLastValue() {
+        return lastValue;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+}
@@ -1,18 +1,63 @@
 package com.gustavo.musicapp.repository;
 
+import com.gustavo.musicapp.dto.MusicResponse;
 import com.gustavo.musicapp.model.Music;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface MusicRepository extends JpaRepository<Music, Long> {
+public interface MusicRepository extends JpaRepository<Music, Long>, MusicRepositoryCustom {
+    
+    // Projeção das listagens: as colunas vão direto para a MusicResponse, sem
+    // instanciar a entidade nem registrá-la no contexto de persistência
+    String PROJECTION = "SELECT new com.gustavo.musicapp.dto.MusicResponse(m.id, m.title, m.artist, m.album, m.url, " +
+            "m.durationSeconds, m.genre, m.releaseYear, m.playCount, m.createdAt, m.updatedAt) FROM Music m";
+    
+    @Query(value = PROJECTION, countQuery = "SELECT COUNT(m) FROM Music m")
+    Page<MusicResponse> findAllProjected(Pageable pageable);
+    
+    @Query(value = PROJECTION + " WHERE LOWER(m.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+                   "OR LOWER(m.artist) LIKE LOWER(CONCAT('%', :query, '%')) " +
+                   "OR LOWER(m.album) LIKE LOWER(CONCAT('%', :query, '%'))",
+           countQuery = "SELECT COUNT(m) FROM Music m WHERE LOWER(m.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+                        "OR LOWER(m.artist) LIKE LOWER(CONCAT('%', :query, '%')) " +
+                        "OR LOWER(m.album) LIKE LOWER(CONCAT('%', :query, '%'))")
+    Page<MusicResponse> searchProjected(@Param("query") String query, Pageable pageable);
+    
+    @Query(PROJECTION + " WHERE LOWER(m.artist) LIKE LOWER(CONCAT('%', :artist, '%'))")
+    List<MusicResponse> findByArtistProjected(@Param("artist") String artist);
+    
+    @Query(value = PROJECTION + " WHERE LOWER(m.genre) LIKE LOWER(CONCAT('%', :genre, '%'))",
+           countQuery = "SELECT COUNT(m) FROM Music m WHERE LOWER(m.genre) LIKE LOWER(CONCAT('%', :genre, '%'))")
+    Page<MusicResponse> findByGenreProjected(@Param("genre") String genre, Pageable pageable);
+    
+    @Query(PROJECTION + " ORDER BY m.playCount DESC")
+    List<MusicResponse> findPopularProjected(Pageable pageable);
+    
+    @Query(PROJECTION + " ORDER BY m.createdAt DESC")
+    List<MusicResponse> findRecentProjected(Pageable pageable);
+    
+    // Entidades somente leitura (sem snapshot de dirty checking) para o cache
+    // por id e a hidratação dos resultados dos índices
+    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    @Query("SELECT m FROM Music m WHERE m.id IN :ids")
+    List<Music> findAllByIdReadOnly(@Param("ids") Collection<Long> ids);
+    
+    // LIKE 'prefixo%' sem LOWER: a collation do MySQL já ignora caixa e o idx_title é usado
+    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    @Query("SELECT m FROM Music m WHERE m.title LIKE :prefix ORDER BY m.playCount DESC")
+    List<Music> findByTitlePrefixReadOnly(@Param("prefix") String prefix, Pageable pageable);
     
     // Buscar por artista (case-insensitive)
     List<Music> findByArtistContainingIgnoreCase(String artist);
@@ -33,6 +78,14 @@ public interface MusicRepository extends JpaRepository<Music, Long> {
     // Verificar se URL já está em uso
     boolean existsByUrl(String url);
     
+    // Pares (título, artista) existentes para um conjunto de títulos (importação em lote)
+    @Query("SELECT m.title, m.artist FROM Music m WHERE m.title IN :titles")
+    List<Object[]> findTitleArtistPairsByTitleIn(@Param("titles") Collection<String> titles);
+    
+    // URLs já cadastradas dentre as informadas (importação em lote)
+    @Query("SELECT m.url FROM Music m WHERE m.url IN :urls")
+    List<String> findExistingUrls(@Param("urls") Collection<String> urls);
+    
     // Buscar música por URL
     Optional<Music> findByUrl(String url);
     
@@ -104,6 +157,26 @@ public interface MusicRepository extends JpaRepository<Music, Long> {
     // Buscar músicas ordenadas por número de reproduções
     List<Music> findAllByOrderByPlayCountDesc();
     
+    // Mesma ordenação, limitada e sem consulta de contagem
+    List<Music> findAllByOrderByPlayCountDesc(Pageable pageable);
+    
     // Buscar músicas ordenadas por data de criação
     List<Music> findAllByOrderByCreatedAtDesc();
+    
+    // Incrementar reproduções em lote (usado pelo flush do PlayCountBuffer)
+    @Modifying
+    @Query("UPDATE Music m SET m.playCount = COALESCE(m.playCount, 0) + :delta WHERE m.id IN :ids")
+    int incrementPlayCounts(@Param("ids") Collection<Long> ids, @Param("delta") Long delta);
+    
+    // Substituir reproduções em lote (reconstrução a partir do PlayJournal)
+    @Modifying
+    @Query("UPDATE Music m SET m.playCount = :playCount WHERE m.id IN :ids")
+    int setPlayCounts(@Param("ids") Collection<Long> ids, @Param("playCount") Long playCount);
+    
+    // Pares [id, play_count] das músicas já reproduzidas
+    @Query("SELECT m.id, m.playCount FROM Music m WHERE m.playCount > 0")
+    List<Object[]> findPlayCounts();
+    
+    // Varredura do catálogo em lotes por id (carga dos índices em memória)
+    List<Music> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
\ No newline at end of file
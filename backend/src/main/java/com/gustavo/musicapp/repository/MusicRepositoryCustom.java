@@ -0,0 +1,31 @@
+package com.gustavo.musicapp.repository;
+
+import com.gustavo.musicapp.dto.MusicFilter;
+import com.gustavo.musicapp.model.Music;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface MusicRepositoryCustom {
+
+    /**
+     * Próxima página a partir da posição do keyset, sem OFFSET e sem COUNT.
+     * genre e query são filtros opcionais (mesma semântica de "containing").
+     */
+    List<Music> findNextPage(MusicKeyset keyset, String genre, String query, int limit);
+
+    /**
+     * Filtro combinado direto no banco, ordenado por id. Usado enquanto o
+     * FilterIndex não está pronto.
+     */
+    List<Music> filter(MusicFilter filter, Pageable pageable);
+
+    long countFilter(MusicFilter filter);
+
+    /**
+     * Exportação do catálogo em streaming, ordenada por id. Filtros nulos são
+     * ignorados. O Stream precisa ser fechado dentro da transação.
+     */
+    Stream<Music> streamForExport(String genre, Integer fromYear, Integer toYear, Long minPlays);
+}
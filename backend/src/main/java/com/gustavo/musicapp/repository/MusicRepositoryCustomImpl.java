@@ -0,0 +1,225 @@
+package com.gustavo.musicapp.repository;
+
+import com.gustavo.musicapp.dto.MusicFilter;
+import com.gustavo.musicapp.model.Music;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+public class MusicRepositoryCustomImpl implements MusicRepositoryCustom {
+
+    private static final String EXPORT_QUERY = "SELECT m FROM Music m WHERE (:genre IS NULL OR m.genre = :genre) " +
+            "AND (:fromYear IS NULL OR m.releaseYear >= :fromYear) " +
+            "AND (:toYear IS NULL OR m.releaseYear <= :toYear) " +
+            "AND (:minPlays IS NULL OR m.playCount >= :minPlays) ORDER BY m.id";
+
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    // '!' e não barra invertida: o MySQL trata a barra como escape também dentro do literal SQL
+    private static final char LIKE_ESCAPE = '!';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Music> findNextPage(MusicKeyset keyset, String genre, String query, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Music> cq = cb.createQuery(Music.class);
+        Root<Music> root = cq.from(Music.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (genre != null) {
+            predicates.add(cb.like(cb.lower(root.get("genre")), containing(genre), LIKE_ESCAPE));
+        }
+        if (query != null) {
+            String pattern = containing(query);
+            predicates.add(cb.or(
+                    cb.like(cb.lower(root.get("title")), pattern, LIKE_ESCAPE),
+                    cb.like(cb.lower(root.get("artist")), pattern, LIKE_ESCAPE),
+                    cb.like(cb.lower(root.get("album")), pattern, LIKE_ESCAPE)));
+        }
+        if (!keyset.isFirstPage()) {
+            predicates.add(seek(cb, root, keyset));
+        }
+        cq.where(predicates.toArray(new Predicate[0]));
+
+        Expression<?> sortKey = sortKey(cb, root, keyset.getField());
+        Path<Object> idPath = root.get("id");
+        if (keyset.isAscending()) {
+            cq.orderBy(cb.asc(sortKey), cb.asc(idPath));
+        } else {
+            cq.orderBy(cb.desc(sortKey), cb.desc(idPath));
+        }
+
+        // Somente leitura: sem snapshot de dirty checking
+        return entityManager.createQuery(cq)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Music> filter(MusicFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Music> cq = cb.createQuery(Music.class);
+        Root<Music> root = cq.from(Music.class);
+        Predicate where = filterPredicate(cb, root, filter);
+        if (where != null) {
+            cq.where(where);
+        }
+        cq.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(cq)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public long countFilter(MusicFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Music> root = cq.from(Music.class);
+        cq.select(cb.count(root));
+        Predicate where = filterPredicate(cb, root, filter);
+        if (where != null) {
+            cq.where(where);
+        }
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    // Mesma semântica do FilterIndex; null quando não há critério
+    private static Predicate filterPredicate(CriteriaBuilder cb, Root<Music> root, MusicFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (!filter.getGenres().isEmpty()) {
+            predicates.add(cb.lower(root.get("genre")).in(lowerCase(filter.getGenres())));
+        }
+        if (!filter.getArtists().isEmpty()) {
+            predicates.add(cb.lower(root.get("artist")).in(lowerCase(filter.getArtists())));
+        }
+        if (filter.hasYearRange()) {
+            predicates.add(between(cb, root.get("releaseYear"), filter.getYearFrom(), filter.getYearTo()));
+        }
+        if (filter.hasDurationRange()) {
+            predicates.add(between(cb, root.get("durationSeconds"), filter.getDurationFrom(), filter.getDurationTo()));
+        }
+        if (filter.getMinPlays() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("playCount"), filter.getMinPlays()));
+        }
+        if (predicates.isEmpty()) {
+            return null;
+        }
+        Predicate[] array = predicates.toArray(new Predicate[0]);
+        return filter.isMatchAll() ? cb.and(array) : cb.or(array);
+    }
+
+    private static Predicate between(CriteriaBuilder cb, Path<Integer> path, Integer from, Integer to) {
+        if (from == null) {
+            return cb.lessThanOrEqualTo(path, to);
+        }
+        if (to == null) {
+            return cb.greaterThanOrEqualTo(path, from);
+        }
+        return cb.between(path, from, to);
+    }
+
+    private static List<String> lowerCase(List<String> values) {
+        List<String> lowered = new ArrayList<>(values.size());
+        for (String value : values) {
+            lowered.add(value.trim().toLowerCase(Locale.ROOT));
+        }
+        return lowered;
+    }
+
+    private Predicate seek(CriteriaBuilder cb, Root<Music> root, MusicKeyset keyset) {
+        Path<Long> id = root.get("id");
+        switch (keyset.getField()) {
+            case TITLE:
+                return after(cb, root.<String>get("title"), (String) keyset.getLastValue(), id, keyset);
+            case CREATED_AT:
+                return after(cb, createdAtKey(cb, root), (LocalDateTime) keyset.getLastValue(), id, keyset);
+            default:
+                return after(cb, playCountKey(cb, root), (Long) keyset.getLastValue(), id, keyset);
+        }
+    }
+
+    // Mesma expressão no ORDER BY e no seek; as colunas anuláveis usam o valor
+    // que MusicKeyset grava no cursor para null
+    private static Expression<?> sortKey(CriteriaBuilder cb, Root<Music> root, MusicKeyset.Field field) {
+        switch (field) {
+            case TITLE:
+                return root.get("title");
+            case CREATED_AT:
+                return createdAtKey(cb, root);
+            default:
+                return playCountKey(cb, root);
+        }
+    }
+
+    private static Expression<LocalDateTime> createdAtKey(CriteriaBuilder cb, Root<Music> root) {
+        return cb.coalesce(root.<LocalDateTime>get("createdAt"), MusicKeyset.NULL_CREATED_AT);
+    }
+
+    private static Expression<Long> playCountKey(CriteriaBuilder cb, Root<Music> root) {
+        return cb.coalesce(root.<Long>get("playCount"), MusicKeyset.NULL_PLAY_COUNT);
+    }
+
+    // (valor, id) estritamente depois da última linha, escrito como
+    // "valor >= x AND (valor > x OR id > y)" para o MySQL usar range no índice
+    private static <Y extends Comparable<? super Y>> Predicate after(
+            CriteriaBuilder cb, Expression<Y> value, Y last, Path<Long> id, MusicKeyset keyset) {
+        if (keyset.isAscending()) {
+            return cb.and(
+                    cb.greaterThanOrEqualTo(value, last),
+                    cb.or(cb.greaterThan(value, last), cb.greaterThan(id, keyset.getLastId())));
+        }
+        return cb.and(
+                cb.lessThanOrEqualTo(value, last),
+                cb.or(cb.lessThan(value, last), cb.lessThan(id, keyset.getLastId())));
+    }
+
+    // %, _ e barra invertida digitados pelo usuário são literais: com ESCAPE explícito a barra
+    // deixa de ser o escape padrão do MySQL e do H2, e os curingas levam '!'
+    private static String containing(String text) {
+        String escaped = text.toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+
+    // Só esta consulta faz streaming: no MySQL o Connector/J só entrega linha a
+    // linha com fetch size Integer.MIN_VALUE, valor que os outros drivers recusam
+    @Override
+    public Stream<Music> streamForExport(String genre, Integer fromYear, Integer toYear, Long minPlays) {
+        return entityManager.createQuery(EXPORT_QUERY, Music.class)
+                .setParameter("genre", genre)
+                .setParameter("fromYear", fromYear)
+                .setParameter("toYear", toYear)
+                .setParameter("minPlays", minPlays)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, isMySql() ? Integer.MIN_VALUE : EXPORT_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private boolean isMySql() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect;
+    }
+}
@@ -0,0 +1,281 @@
+package com.gustavo.musicapp.service;
+
+import com.gustavo.musicapp.cache.MusicCache;
+import com.gustavo.musicapp.exception.AudioNotFoundException;
+import com.gustavo.musicapp.exception.MusicNotFoundException;
+import com.gustavo.musicapp.model.Music;
+import com.gustavo.musicapp.repository.MusicRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Entrega dos arquivos de áudio armazenados em app.music.upload.storage-path,
+ * com suporte a Range (206, várias faixas em multipart/byteranges) e If-Range.
+ *
+ * Com um único intervalo e o conector do Tomcat com sendfile, o servlet só
+ * informa arquivo e posições e o Tomcat envia os bytes do cache de páginas
+ * direto para o socket, liberando a thread da requisição. Sem sendfile (TLS,
+ * outro container, várias faixas) os bytes saem por FileChannel.transferTo
+ * num buffer de tamanho fixo; em nenhum caso o arquivo é carregado no heap.
+ */
+@Service
+public class AudioStreamService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "mp3", "audio/mpeg",
+            "wav", "audio/wav",
+            "flac", "audio/flac",
+            "m4a", "audio/mp4");
+
+    @Autowired
+    private MusicCache musicCache;
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @Autowired
+    private MusicService musicService;
+
+    @Value("${app.music.upload.storage-path:/uploads/music/}")
+    private String storagePath;
+
+    @Value("${app.music.stream.count-plays:true}")
+    private boolean countPlays;
+
+    @Value("${app.music.stream.max-ranges:16}")
+    private int maxRanges;
+
+    private Path storageRoot;
+
+    @PostConstruct
+    void init() {
+        this.storageRoot = Paths.get(storagePath).toAbsolutePath().normalize();
+    }
+
+    public void stream(Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = resolve(id);
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        List<long[]> ranges = requestedRanges(request, etag, lastModified, length);
+        if (ranges == null) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return;
+        }
+
+        boolean head = "HEAD".equals(request.getMethod());
+        // A reprodução conta quando o início do arquivo é entregue, não a cada faixa buscada pelo player
+        if (countPlays && !head && (ranges.isEmpty() || ranges.get(0)[0] == 0)) {
+            musicService.playMusic(id);
+        }
+
+        String contentType = contentType(file);
+        if (ranges.size() > 1) {
+            sendMultipart(file, contentType, length, ranges, head, response);
+            return;
+        }
+
+        long start = ranges.isEmpty() ? 0 : ranges.get(0)[0];
+        long end = ranges.isEmpty() ? length - 1 : ranges.get(0)[1];
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_OK);
+        } else {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        response.setContentType(contentType);
+        response.setContentLengthLong(end - start + 1);
+        if (head || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            // Fim exclusivo
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (ServletOutputStream out = response.getOutputStream()) {
+            transfer(file, start, end - start + 1, out);
+        }
+    }
+
+    private void sendMultipart(Path file, String contentType, long length, List<long[]> ranges, boolean head,
+                               HttpServletResponse response) throws IOException {
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (long[] range : ranges) {
+            byte[] header = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + range[0] + "-" + range[1] + "/" + length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(header);
+            contentLength += header.length + (range[1] - range[0] + 1);
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (head) {
+            return;
+        }
+        try (ServletOutputStream out = response.getOutputStream()) {
+            for (int i = 0; i < ranges.size(); i++) {
+                long[] range = ranges.get(i);
+                out.write(partHeaders.get(i));
+                transfer(file, range[0], range[1] - range[0] + 1, out);
+            }
+            out.write(closing);
+        }
+    }
+
+    private static void transfer(Path file, long position, long count, ServletOutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    // Arquivo encolheu durante a resposta
+                    throw new IOException("Fim inesperado do arquivo de áudio " + file);
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    /**
+     * Intervalos [início, fim] pedidos, lista vazia para o arquivo inteiro ou
+     * null quando nenhum intervalo é satisfatível (416). Range malformado,
+     * If-Range divergente, faixas demais ou sobrepostas além do tamanho do
+     * arquivo fazem o Range ser ignorado, como permite a RFC 9110.
+     */
+    private List<long[]> requestedRanges(HttpServletRequest request, String etag, long lastModified, long length) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null || !ifRangeMatches(request, etag, lastModified)) {
+            return List.of();
+        }
+        List<HttpRange> parsed;
+        try {
+            parsed = HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException ex) {
+            return List.of();
+        }
+        if (parsed.isEmpty() || parsed.size() > maxRanges) {
+            return List.of();
+        }
+
+        List<long[]> ranges = new ArrayList<>(parsed.size());
+        long total = 0;
+        for (HttpRange range : parsed) {
+            try {
+                long start = range.getRangeStart(length);
+                long end = range.getRangeEnd(length);
+                ranges.add(new long[]{start, end});
+                total += end - start + 1;
+            } catch (IllegalArgumentException ex) {
+                // Faixa fora do arquivo: as demais ainda podem ser atendidas
+            }
+        }
+        if (ranges.isEmpty()) {
+            return null;
+        }
+        return total > length ? List.of() : ranges;
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // If-Range exige comparação forte
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    // Music.url aponta para o arquivo: caminho relativo a storage-path ou URL cujo caminho espelha o storage
+    private Path resolve(Long id) {
+        Music music = musicCache.get(id, musicRepository::findById)
+                .orElseThrow(() -> new MusicNotFoundException("Música não encontrada com ID: " + id));
+        String location = music.getUrl();
+        if (location == null || location.isBlank()) {
+            throw new AudioNotFoundException("Música sem arquivo de áudio: " + id);
+        }
+        try {
+            URI uri = URI.create(location);
+            if (uri.getScheme() != null && uri.getPath() != null) {
+                location = uri.getPath();
+            }
+        } catch (IllegalArgumentException ex) {
+            // Não é URI: tratado como caminho
+        }
+
+        Path file;
+        try {
+            Path path = Paths.get(location).normalize();
+            file = path.isAbsolute() && path.startsWith(storageRoot)
+                    ? path
+                    : storageRoot.resolve(location.replaceFirst("^/+", "")).normalize();
+        } catch (RuntimeException ex) {
+            throw new AudioNotFoundException("Caminho de áudio inválido para a música " + id, ex);
+        }
+        if (!file.startsWith(storageRoot) || !Files.isRegularFile(file)) {
+            throw new AudioNotFoundException("Arquivo de áudio não encontrado para a música " + id);
+        }
+        return file;
+    }
+
+    private static String contentType(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String extension = dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+    }
+}
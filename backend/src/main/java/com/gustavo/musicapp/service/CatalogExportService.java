@@ -0,0 +1,119 @@
+package com.gustavo.musicapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gustavo.musicapp.dto.MusicResponse;
+import com.gustavo.musicapp.model.Music;
+import com.gustavo.musicapp.repository.MusicRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Exportação do catálogo completo em NDJSON ou CSV.
+ *
+ * As músicas são lidas com um cursor forward-only e desanexadas do contexto de
+ * persistência logo depois de escritas, então o uso de memória não depende do
+ * tamanho do catálogo.
+ */
+@Service
+public class CatalogExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String CSV_HEADER =
+            "id,title,artist,album,url,durationSeconds,genre,releaseYear,playCount,createdAt\n";
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @Autowired
+    private PlayCountBuffer playCountBuffer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public void export(Format format, String genre, Integer fromYear, Integer toYear, Long minPlays, OutputStream out) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try (Stream<Music> musics = musicRepository.streamForExport(genre, fromYear, toYear, minPlays)) {
+                if (format == Format.CSV) {
+                    writer.write(CSV_HEADER);
+                }
+                musics.forEach(music -> {
+                    write(format, music, writer);
+                    entityManager.detach(music);
+                });
+                writer.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Falha ao escrever a exportação", ex);
+            }
+        });
+    }
+
+    private void write(Format format, Music music, Writer writer) {
+        long playCount = (music.getPlayCount() == null ? 0 : music.getPlayCount()) + playCountBuffer.pendingFor(music.getId());
+        try {
+            if (format == Format.CSV) {
+                writer.write(String.valueOf(music.getId()));
+                writeCsvField(writer, music.getTitle());
+                writeCsvField(writer, music.getArtist());
+                writeCsvField(writer, music.getAlbum());
+                writeCsvField(writer, music.getUrl());
+                writeCsvField(writer, music.getDurationSeconds());
+                writeCsvField(writer, music.getGenre());
+                writeCsvField(writer, music.getReleaseYear());
+                writeCsvField(writer, playCount);
+                writeCsvField(writer, music.getCreatedAt());
+            } else {
+                MusicResponse response = MusicResponse.from(music);
+                response.setPlayCount(playCount);
+                writer.write(objectMapper.writeValueAsString(response));
+            }
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Falha ao escrever a exportação", ex);
+        }
+    }
+
+    private static void writeCsvField(Writer writer, Object value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0) {
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(text);
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.gustavo.musicapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gustavo.musicapp.dto.ImportReport;
+import com.gustavo.musicapp.dto.ImportReport.RowResult;
+import com.gustavo.musicapp.dto.ImportReport.Status;
+import com.gustavo.musicapp.event.MusicChangedEvent;
+import com.gustavo.musicapp.index.TextNormalizer;
+import com.gustavo.musicapp.model.Music;
+import com.gustavo.musicapp.repository.MusicRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importação de catálogo em lote a partir de NDJSON ou CSV.
+ *
+ * O corpo é lido em streaming e processado em blocos: cada bloco é deduplicado
+ * com duas consultas IN (título/artista e URL) e inserido com um único
+ * executeBatch via JDBC. Com rewriteBatchedStatements=true o driver do MySQL
+ * transforma o lote em INSERTs multi-linha, e as chaves geradas voltam para o
+ * relatório.
+ */
+@Service
+public class CatalogImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogImportService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO musics "
+            + "(title, artist, album, url, duration_seconds, genre, release_year, play_count, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.music.import.chunk-size:5000}")
+    private int chunkSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ImportReport importNdjson(InputStream body) {
+        return importRows(body, false);
+    }
+
+    public ImportReport importCsv(InputStream body) {
+        return importRows(body, true);
+    }
+
+    private ImportReport importRows(InputStream body, boolean csv) {
+        long started = System.currentTimeMillis();
+        ImportReport report = new ImportReport();
+        // Chaves já aceitas nesta importação, para deduplicar entre blocos
+        Set<String> seenKeys = new HashSet<>();
+        Set<String> seenUrls = new HashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String[] header = null;
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = parseCsvLine(line).toArray(new String[0]);
+                    continue;
+                }
+                ImportRow row = csv ? fromCsv(header, line, lineNumber) : fromJson(line, lineNumber);
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    processChunk(chunk, report, seenKeys, seenUrls);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, report, seenKeys, seenUrls);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Falha ao ler o arquivo de importação", ex);
+        }
+
+        report.setElapsedMillis(System.currentTimeMillis() - started);
+        log.info("Importação concluída: {} recebidas, {} criadas, {} duplicadas, {} inválidas, {} falhas em {} ms",
+                report.getReceived(), report.getCreated(), report.getDuplicates(), report.getInvalid(),
+                report.getFailed(), report.getElapsedMillis());
+        return report;
+    }
+
+    private void processChunk(List<ImportRow> chunk, ImportReport report, Set<String> seenKeys, Set<String> seenUrls) {
+        Map<Long, RowResult> results = new HashMap<>();
+        List<ImportRow> valid = new ArrayList<>();
+        for (ImportRow row : chunk) {
+            String error = row.error != null ? row.error : validate(row);
+            if (error != null) {
+                results.put(row.line, new RowResult(row.line, Status.INVALID, null, error));
+            } else {
+                valid.add(row);
+            }
+        }
+
+        // Deduplicação em conjunto contra o catálogo existente
+        Set<String> titles = new HashSet<>();
+        Set<String> urls = new HashSet<>();
+        for (ImportRow row : valid) {
+            titles.add(row.title);
+            if (row.url != null) {
+                urls.add(row.url);
+            }
+        }
+        Set<String> existingKeys = new HashSet<>();
+        if (!titles.isEmpty()) {
+            for (Object[] pair : musicRepository.findTitleArtistPairsByTitleIn(titles)) {
+                existingKeys.add(duplicateKey((String) pair[0], (String) pair[1]));
+            }
+        }
+        Set<String> existingUrls = urls.isEmpty() ? Set.of() : new HashSet<>(musicRepository.findExistingUrls(urls));
+
+        List<ImportRow> toInsert = new ArrayList<>();
+        for (ImportRow row : valid) {
+            String key = duplicateKey(row.title, row.artist);
+            if (existingKeys.contains(key) || !seenKeys.add(key)) {
+                results.put(row.line, new RowResult(row.line, Status.DUPLICATE, null, "Música já existe: " + row.title + " - " + row.artist));
+            } else if (row.url != null && (existingUrls.contains(row.url) || !seenUrls.add(row.url))) {
+                seenKeys.remove(key);
+                results.put(row.line, new RowResult(row.line, Status.DUPLICATE, null, "URL já está sendo utilizada por outra música"));
+            } else {
+                toInsert.add(row);
+            }
+        }
+
+        if (!toInsert.isEmpty()) {
+            try {
+                List<Long> ids = transactionTemplate.execute(status -> insertBatch(toInsert));
+                for (int i = 0; i < toInsert.size(); i++) {
+                    ImportRow row = toInsert.get(i);
+                    Long id = ids != null && i < ids.size() ? ids.get(i) : null;
+                    results.put(row.line, new RowResult(row.line, Status.CREATED, id, null));
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Falha ao inserir bloco de {} músicas", toInsert.size(), ex);
+                for (ImportRow row : toInsert) {
+                    seenKeys.remove(duplicateKey(row.title, row.artist));
+                    if (row.url != null) {
+                        seenUrls.remove(row.url);
+                    }
+                    results.put(row.line, new RowResult(row.line, Status.FAILED, null, "Falha ao gravar o bloco: " + ex.getMessage()));
+                }
+            }
+        }
+
+        for (ImportRow row : chunk) {
+            report.add(results.get(row.line));
+        }
+    }
+
+    // Roda dentro da transação do bloco; os eventos são entregues após o commit
+    private List<Long> insertBatch(List<ImportRow> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            List<Long> generated = new ArrayList<>(rows.size());
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                Timestamp timestamp = Timestamp.valueOf(now);
+                for (ImportRow row : rows) {
+                    ps.setString(1, row.title);
+                    ps.setString(2, row.artist);
+                    ps.setString(3, row.album);
+                    ps.setString(4, row.url);
+                    setInteger(ps, 5, row.durationSeconds);
+                    ps.setString(6, row.genre);
+                    setInteger(ps, 7, row.releaseYear);
+                    ps.setTimestamp(8, timestamp);
+                    ps.setTimestamp(9, timestamp);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        generated.add(keys.getLong(1));
+                    }
+                }
+            }
+            return generated;
+        });
+
+        for (int i = 0; i < rows.size() && ids != null && i < ids.size(); i++) {
+            eventPublisher.publishEvent(MusicChangedEvent.created(rows.get(i).toMusic(ids.get(i), now)));
+        }
+        return ids;
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+
+    // Mesmas regras de tamanho/obrigatoriedade da entidade Music
+    private static String validate(ImportRow row) {
+        if (row.title == null || row.title.isBlank()) return "Título é obrigatório";
+        if (row.title.length() > 200) return "Título deve ter no máximo 200 caracteres";
+        if (row.artist == null || row.artist.isBlank()) return "Artista é obrigatório";
+        if (row.artist.length() > 150) return "Nome do artista deve ter no máximo 150 caracteres";
+        if (row.album != null && row.album.length() > 150) return "Nome do álbum deve ter no máximo 150 caracteres";
+        if (row.genre != null && row.genre.length() > 100) return "Gênero deve ter no máximo 100 caracteres";
+        if (row.url != null && row.url.length() > 500) return "URL deve ter no máximo 500 caracteres";
+        return null;
+    }
+
+    // Comparação insensível a caixa e acentos, como a collation do MySQL
+    private static String duplicateKey(String title, String artist) {
+        return TextNormalizer.fold(title).trim() + '\u0000' + TextNormalizer.fold(artist).trim();
+    }
+
+    private ImportRow fromJson(String line, long lineNumber) {
+        ImportRow row = new ImportRow(lineNumber);
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            row.title = text(node, "title");
+            row.artist = text(node, "artist");
+            row.album = text(node, "album");
+            row.url = text(node, "url");
+            row.genre = text(node, "genre");
+            row.durationSeconds = integer(text(node, "durationSeconds"));
+            row.releaseYear = integer(text(node, "releaseYear"));
+        } catch (IOException | NumberFormatException ex) {
+            row.error = "Linha inválida: " + ex.getMessage();
+        }
+        return row;
+    }
+
+    private static ImportRow fromCsv(String[] header, String line, long lineNumber) {
+        ImportRow row = new ImportRow(lineNumber);
+        List<String> values = parseCsvLine(line);
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.length && i < values.size(); i++) {
+            fields.put(header[i].trim().toLowerCase(Locale.ROOT), emptyToNull(values.get(i)));
+        }
+        try {
+            row.title = fields.get("title");
+            row.artist = fields.get("artist");
+            row.album = fields.get("album");
+            row.url = fields.get("url");
+            row.durationSeconds = integer(fields.get("durationseconds"));
+            row.genre = fields.get("genre");
+            row.releaseYear = integer(fields.get("releaseyear"));
+        } catch (NumberFormatException ex) {
+            row.error = "Valor numérico inválido: " + ex.getMessage();
+        }
+        return row;
+    }
+
+    // CSV simples (RFC 4180 sem quebras de linha dentro de campos)
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : emptyToNull(value.asText());
+    }
+
+    private static Integer integer(String value) {
+        return value == null ? null : Integer.valueOf(value.trim());
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static final class ImportRow {
+        private final long line;
+        private String title;
+        private String artist;
+        private String album;
+        private String url;
+        private Integer durationSeconds;
+        private String genre;
+        private Integer releaseYear;
+        private String error;
+
+        ImportRow(long line) {
+            this.line = line;
+        }
+
+        Music toMusic(Long id, LocalDateTime createdAt) {
+            Music music = new Music(title, artist, album, url);
+            music.setId(id);
+            music.setDurationSeconds(durationSeconds);
+            music.setGenre(genre);
+            music.setReleaseYear(releaseYear);
+            music.setPlayCount(0L);
+            music.setCreatedAt(createdAt);
+            music.setUpdatedAt(createdAt);
+            return music;
+        }
+    }
+}
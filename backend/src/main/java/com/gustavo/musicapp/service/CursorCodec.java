@@ -0,0 +1,53 @@
+package com.gustavo.musicapp.service;
+
+import com.gustavo.musicapp.exception.InvalidCursorException;
+import com.gustavo.musicapp.repository.MusicKeyset;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Converte a posição do keyset em um token opaco (base64url) e vice-versa.
+ * Formato interno: campo|direção|id|valor — o valor fica por último porque
+ * títulos podem conter o separador.
+ */
+final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {}
+
+    static String encode(MusicKeyset keyset) {
+        String raw = keyset.getField().name() + SEPARATOR
+                + keyset.getDirection().name() + SEPARATOR
+                + keyset.getLastId() + SEPARATOR
+                + keyset.getLastValue();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static MusicKeyset decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            MusicKeyset.Field field = MusicKeyset.Field.valueOf(parts[0]);
+            Sort.Direction direction = Sort.Direction.valueOf(parts[1]);
+            Long lastId = Long.valueOf(parts[2]);
+            return new MusicKeyset(field, direction, parseValue(field, parts[3]), lastId);
+        } catch (RuntimeException ex) {
+            throw new InvalidCursorException("Cursor de paginação inválido", ex);
+        }
+    }
+
+    private static Object parseValue(MusicKeyset.Field field, String value) {
+        switch (field) {
+            case TITLE:
+                return value;
+            case CREATED_AT:
+                return LocalDateTime.parse(value);
+            default:
+                return Long.valueOf(value);
+        }
+    }
+}
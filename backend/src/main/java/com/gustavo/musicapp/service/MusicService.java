@@ -1,21 +1,57 @@
 package com.gustavo.musicapp.service;
 
+import com.gustavo.musicapp.cache.CatalogVersion;
+import com.gustavo.musicapp.cache.MusicCache;
+import com.gustavo.musicapp.dto.CursorPage;
+import com.gustavo.musicapp.dto.FacetValue;
+import com.gustavo.musicapp.dto.MusicBatch;
+import com.gustavo.musicapp.dto.MusicFilter;
 import com.gustavo.musicapp.dto.MusicRequest;
 import com.gustavo.musicapp.dto.MusicResponse;
+import com.gustavo.musicapp.dto.Suggestion;
+import com.gustavo.musicapp.dto.TrendingMusic;
 import com.gustavo.musicapp.exception.MusicNotFoundException;
 import com.gustavo.musicapp.exception.DuplicateMusicException;
+import com.gustavo.musicapp.exception.InvalidCursorException;
+import com.gustavo.musicapp.exception.InvalidParameterException;
+import com.gustavo.musicapp.event.MusicChangedEvent;
+import com.gustavo.musicapp.event.MusicPlayedEvent;
+import com.gustavo.musicapp.index.AutocompleteIndex;
+import com.gustavo.musicapp.index.DuplicateFilter;
+import com.gustavo.musicapp.index.FacetIndex;
+import com.gustavo.musicapp.index.FilterIndex;
+import com.gustavo.musicapp.index.PopularityLeaderboard;
+import com.gustavo.musicapp.index.RelatedTracksIndex;
+import com.gustavo.musicapp.index.SearchIndex;
+import com.gustavo.musicapp.index.TrendingTracker;
 import com.gustavo.musicapp.model.Music;
+import com.gustavo.musicapp.repository.MusicKeyset;
 import com.gustavo.musicapp.repository.MusicRepository;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,33 +61,120 @@ public class MusicService {
     @Autowired
     private MusicRepository musicRepository;
 
+    @Autowired
+    private PlayCountBuffer playCountBuffer;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private MusicCache musicCache;
+
+    @Autowired
+    private PopularityLeaderboard popularityLeaderboard;
+
+    @Autowired
+    private FacetIndex facetIndex;
+
+    @Autowired
+    private DuplicateFilter duplicateFilter;
+
+    @Autowired
+    private FilterIndex filterIndex;
+
+    @Autowired
+    private TrendingTracker trendingTracker;
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private RelatedTracksIndex relatedTracksIndex;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.music.pagination.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.music.batch.max-ids:1000}")
+    private int maxBatchIds;
+
+    @Value("${app.music.batch.chunk-size:500}")
+    private int batchChunkSize;
+
     @Transactional(readOnly = true)
     public Page<MusicResponse> getAllMusics(Pageable pageable) {
-        Page<Music> musics = musicRepository.findAll(pageable);
-        return musics.map(MusicResponse::from);
+        return musicRepository.findAllProjected(pageable).map(this::withPending);
     }
 
-    @Transactional(readOnly = true)
+    // SUPPORTS: num acerto de cache nenhuma conexão é aberta
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public MusicResponse getMusicById(Long id) {
-        Music music = musicRepository.findById(id)
+        Music music = musicCache.get(id, musicRepository::findById)
                 .orElseThrow(() -> new MusicNotFoundException("Música não encontrada com ID: " + id));
-        return MusicResponse.from(music);
+        return toResponse(music);
+    }
+
+    // Fila ou playlist: cache primeiro, o resto em consultas IN de até chunk-size ids
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public MusicBatch getMusicsByIds(List<Long> ids) {
+        if (ids.size() > maxBatchIds) {
+            throw new InvalidParameterException("Máximo de " + maxBatchIds + " ids por requisição");
+        }
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        Map<Long, Music> found = musicCache.getAll(distinct, this::loadByIds);
+
+        List<MusicResponse> musics = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Music music = id == null ? null : found.get(id);
+            if (music != null) {
+                musics.add(toResponse(music));
+            }
+        }
+        List<Long> missing = distinct.stream()
+                .filter(id -> !found.containsKey(id))
+                .collect(Collectors.toList());
+        return new MusicBatch(musics, missing);
+    }
+
+    // Validador HTTP da música sem montar a resposta; num acerto de cache não vai ao banco
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CatalogVersion.Validator getMusicValidator(Long id) {
+        Music music = musicCache.get(id, musicRepository::findById)
+                .orElseThrow(() -> new MusicNotFoundException("Música não encontrada com ID: " + id));
+        return CatalogVersion.of(music, currentPlayCount(music));
+    }
+
+    // As relacionadas são recalculadas depois da escrita; a geração das listas entra no validador
+    public CatalogVersion.Validator getRelatedValidator() {
+        return catalogVersion.catalogAndPlays(relatedTracksIndex.generation(), relatedTracksIndex.generatedAt());
     }
 
     public MusicResponse addMusic(MusicRequest musicRequest) {
         // Verificar se já existe uma música com o mesmo título e artista
-        if (musicRepository.existsByTitleAndArtist(musicRequest.getTitle(), musicRequest.getArtist())) {
+        // (o filtro descarta sem consulta o que com certeza não existe)
+        if (duplicateFilter.mightContainTitleAndArtist(musicRequest.getTitle(), musicRequest.getArtist())
+                && musicRepository.existsByTitleAndArtist(musicRequest.getTitle(), musicRequest.getArtist())) {
             throw new DuplicateMusicException("Música já existe: " + musicRequest.getTitle() + " - " + musicRequest.getArtist());
         }
         
         // Verificar se URL já está em uso
-        if (musicRequest.getUrl() != null && musicRepository.existsByUrl(musicRequest.getUrl())) {
+        if (musicRequest.getUrl() != null && duplicateFilter.mightContainUrl(musicRequest.getUrl())
+                && musicRepository.existsByUrl(musicRequest.getUrl())) {
             throw new DuplicateMusicException("URL já está sendo utilizada por outra música");
         }
         
         Music music = convertToEntity(musicRequest);
+        // O filtro recebe a música pelo evento, depois do commit; inserções
+        // simultâneas nessa janela esbarram nas restrições únicas (409)
         Music savedMusic = musicRepository.save(music);
-        return MusicResponse.from(savedMusic);
+        eventPublisher.publishEvent(MusicChangedEvent.created(savedMusic));
+        return toResponse(savedMusic);
     }
 
     public MusicResponse updateMusic(Long id, MusicRequest musicRequest) {
@@ -61,14 +184,15 @@ public class MusicService {
         // Verificar duplicatas apenas se título ou artista foram alterados
         if (!existingMusic.getTitle().equals(musicRequest.getTitle()) || 
             !existingMusic.getArtist().equals(musicRequest.getArtist())) {
-            if (musicRepository.existsByTitleAndArtist(musicRequest.getTitle(), musicRequest.getArtist())) {
+            if (duplicateFilter.mightContainTitleAndArtist(musicRequest.getTitle(), musicRequest.getArtist())
+                    && musicRepository.existsByTitleAndArtist(musicRequest.getTitle(), musicRequest.getArtist())) {
                 throw new DuplicateMusicException("Já existe uma música com este título e artista");
             }
         }
         
         // Verificar URL duplicada apenas se foi alterada
         if (musicRequest.getUrl() != null && !musicRequest.getUrl().equals(existingMusic.getUrl())) {
-            if (musicRepository.existsByUrl(musicRequest.getUrl())) {
+            if (duplicateFilter.mightContainUrl(musicRequest.getUrl()) && musicRepository.existsByUrl(musicRequest.getUrl())) {
                 throw new DuplicateMusicException("URL já está sendo utilizada por outra música");
             }
         }
@@ -76,7 +200,8 @@ public class MusicService {
         // Atualizar os campos
         updateMusicFields(existingMusic, musicRequest);
         Music updatedMusic = musicRepository.save(existingMusic);
-        return MusicResponse.from(updatedMusic);
+        eventPublisher.publishEvent(MusicChangedEvent.updated(updatedMusic));
+        return toResponse(updatedMusic);
     }
 
     public void deleteMusic(Long id) {
@@ -84,67 +209,268 @@ public class MusicService {
             throw new MusicNotFoundException("Música não encontrada com ID: " + id);
         }
         musicRepository.deleteById(id);
+        eventPublisher.publishEvent(MusicChangedEvent.deleted(id));
     }
 
     @Transactional(readOnly = true)
     public Page<MusicResponse> searchMusics(String query, Pageable pageable) {
-        Page<Music> musics = musicRepository.findByTitleContainingIgnoreCaseOrArtistContainingIgnoreCaseOrAlbumContainingIgnoreCase(
-                query, query, query, pageable);
-        return musics.map(MusicResponse::from);
+        // Ordenação por relevância vem do índice; ordenações explícitas vão ao banco
+        if (pageable.getSort().isUnsorted()) {
+            Optional<SearchIndex.Hits> hits = searchIndex.search(query, pageable.getOffset(), pageable.getPageSize());
+            if (hits.isPresent()) {
+                List<MusicResponse> content = findAllInOrder(hits.get().getIds()).stream()
+                        .map(this::toResponse)
+                        .collect(Collectors.toList());
+                return new PageImpl<>(content, pageable, hits.get().getTotal());
+            }
+        }
+        
+        return musicRepository.searchProjected(query, pageable).map(this::withPending);
     }
 
     @Transactional(readOnly = true)
     public List<MusicResponse> getMusicsByArtist(String artist) {
-        List<Music> musics = musicRepository.findByArtistContainingIgnoreCase(artist);
-        return musics.stream()
-                .map(MusicResponse::from)
+        return musicRepository.findByArtistProjected(artist).stream()
+                .map(this::withPending)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public Page<MusicResponse> getMusicsByGenre(String genre, Pageable pageable) {
-        Page<Music> musics = musicRepository.findByGenreContainingIgnoreCase(genre, pageable);
-        return musics.map(MusicResponse::from);
+        return musicRepository.findByGenreProjected(genre, pageable).map(this::withPending);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public MusicResponse playMusic(Long id) {
-        Music music = musicRepository.findById(id)
+        Music music = musicCache.get(id, musicRepository::findById)
                 .orElseThrow(() -> new MusicNotFoundException("Música não encontrada com ID: " + id));
         
-        music.incrementPlayCount();
-        Music updatedMusic = musicRepository.save(music);
-        return MusicResponse.from(updatedMusic);
+        // O incremento fica no buffer e é gravado em lote pelo PlayCountBuffer
+        playCountBuffer.record(id);
+        eventPublisher.publishEvent(new MusicPlayedEvent(music, currentPlayCount(music), Instant.now()));
+        return toResponse(music);
     }
 
+    // Paginação por cursor (keyset): sem OFFSET e sem COUNT
     @Transactional(readOnly = true)
+    public CursorPage<MusicResponse> getAllMusicsByCursor(String cursor, String sort, String direction, int size) {
+        return seekPage(cursor, sort, direction, size, null, null);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<MusicResponse> searchMusicsByCursor(String query, String cursor, String sort, String direction, int size) {
+        return seekPage(cursor, sort, direction, size, null, query);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<MusicResponse> getMusicsByGenreByCursor(String genre, String cursor, String sort, String direction, int size) {
+        return seekPage(cursor, sort, direction, size, genre, null);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<MusicResponse> getPopularMusics(int limit) {
-        Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "playCount"));
-        Page<Music> popularMusics = musicRepository.findAll(pageable);
-        return popularMusics.getContent().stream()
-                .map(MusicResponse::from)
+        // Até K resultados o ranking em memória responde sem consultar o banco
+        Optional<List<PopularityLeaderboard.Entry>> top = popularityLeaderboard.top(limit);
+        if (top.isPresent()) {
+            return top.get().stream()
+                    .map(entry -> {
+                        MusicResponse response = MusicResponse.from(entry.getMusic());
+                        response.setPlayCount(entry.getPlayCount());
+                        return response;
+                    })
+                    .collect(Collectors.toList());
+        }
+        
+        return musicRepository.findPopularProjected(PageRequest.of(0, limit)).stream()
+                .map(this::withPending)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Suggestion> autocomplete(String prefix, int limit) {
+        int size = Math.max(1, Math.min(limit, autocompleteIndex.getCapacity()));
+        Optional<List<AutocompleteIndex.Entry>> entries = autocompleteIndex.suggest(prefix, size);
+        if (entries.isPresent()) {
+            return entries.get().stream()
+                    .map(entry -> new Suggestion(entry.getText(), entry.getType().name().toLowerCase(Locale.ROOT),
+                            entry.getPlays(), entry.getCount()))
+                    .collect(Collectors.toList());
+        }
+
+        // Enquanto o índice carrega: só títulos, por prefixo no banco
+        String pattern = prefix.trim().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return musicRepository.findByTitlePrefixReadOnly(pattern, PageRequest.of(0, size)).stream()
+                .map(music -> new Suggestion(music.getTitle(), "title", currentPlayCount(music), 1))
+                .collect(Collectors.toList());
+    }
+
+    // Listas pré-calculadas pelo RelatedTracksIndex; o banco só é lido para montar a resposta
+    @Transactional(readOnly = true)
+    public List<MusicResponse> getRelatedMusics(Long id, int limit) {
+        if (musicCache.get(id, musicRepository::findById).isEmpty()) {
+            throw new MusicNotFoundException("Música não encontrada com ID: " + id);
+        }
+        int size = Math.max(1, Math.min(limit, relatedTracksIndex.getTopN()));
+        return findAllInOrder(relatedTracksIndex.related(id, size)).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    // Ranking em memória, limitado a app.music.trending.top-k; não há consulta equivalente no banco
+    @Transactional(readOnly = true)
+    public List<TrendingMusic> getTrendingMusics(TrendingTracker.Window window, int limit) {
+        List<TrendingTracker.Entry> top = trendingTracker.top(window, limit);
+        List<Long> ids = top.stream().map(TrendingTracker.Entry::getMusicId).collect(Collectors.toList());
+        Map<Long, Music> byId = findAllInOrder(ids).stream()
+                .collect(Collectors.toMap(Music::getId, Function.identity()));
+        return top.stream()
+                .filter(entry -> byId.containsKey(entry.getMusicId()))
+                .map(entry -> new TrendingMusic(toResponse(byId.get(entry.getMusicId())), entry.getScore(), entry.getPlays()))
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<MusicResponse> getRecentMusics(int limit) {
-        Pageable pageable = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Music> recentMusics = musicRepository.findAll(pageable);
-        return recentMusics.getContent().stream()
-                .map(MusicResponse::from)
+        return musicRepository.findRecentProjected(PageRequest.of(0, limit)).stream()
+                .map(this::withPending)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<String> getAllGenres() {
-        return musicRepository.findDistinctGenres();
+        return facetIndex.values(FacetIndex.GENRE)
+                .orElseGet(() -> musicRepository.findDistinctGenres());
     }
 
     @Transactional(readOnly = true)
     public List<String> getAllArtists() {
-        return musicRepository.findDistinctArtists();
+        return facetIndex.values(FacetIndex.ARTIST)
+                .orElseGet(() -> musicRepository.findDistinctArtists());
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<String, List<FacetValue>> getFacets(FacetIndex.Order order, int limit) {
+        return facetIndex.getFacets(order, limit)
+                .orElseGet(() -> loadFacetsFromDatabase(limit));
+    }
+
+    // Ordem por id; o índice bitmap responde sem ir ao banco até a página ser montada
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Page<MusicResponse> filterMusics(MusicFilter filter, Pageable pageable) {
+        Optional<RoaringBitmap> matches = filterIndex.evaluate(filter);
+        if (matches.isPresent()) {
+            List<Long> ids = FilterIndex.page(matches.get(), pageable.getOffset(), pageable.getPageSize());
+            List<MusicResponse> content = findAllInOrder(ids).stream()
+                    .map(this::toResponse)
+                    .collect(Collectors.toList());
+            return new PageImpl<>(content, pageable, matches.get().getLongCardinality());
+        }
+
+        List<MusicResponse> content = musicRepository.filter(filter, pageable).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, musicRepository.countFilter(filter));
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long countMusics(MusicFilter filter) {
+        return filterIndex.evaluate(filter)
+                .map(RoaringBitmap::getLongCardinality)
+                .orElseGet(() -> musicRepository.countFilter(filter));
     }
 
     // Métodos auxiliares privados
+    // Usado só enquanto o FacetIndex ainda não terminou de carregar
+    private Map<String, List<FacetValue>> loadFacetsFromDatabase(int limit) {
+        Map<String, List<FacetValue>> facets = new LinkedHashMap<>();
+        facets.put(FacetIndex.GENRE, toFacetValues(musicRepository.findDistinctGenres(), limit));
+        facets.put(FacetIndex.ARTIST, toFacetValues(musicRepository.findDistinctArtists(), limit));
+        facets.put(FacetIndex.ALBUM, toFacetValues(musicRepository.findDistinctAlbums(), limit));
+        return facets;
+    }
+
+    private static List<FacetValue> toFacetValues(List<String> values, int limit) {
+        return values.stream()
+                .limit(limit > 0 ? limit : Long.MAX_VALUE)
+                .map(value -> new FacetValue(value, 0, 0))
+                .collect(Collectors.toList());
+    }
+
+    private CursorPage<MusicResponse> seekPage(String cursor, String sort, String direction, int size,
+                                               String genre, String query) {
+        MusicKeyset keyset = cursor == null || cursor.isBlank()
+                ? firstPage(sort, direction)
+                : CursorCodec.decode(cursor);
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+
+        // Uma linha a mais indica se existe próxima página
+        List<Music> musics = musicRepository.findNextPage(keyset, genre, query, pageSize + 1);
+        boolean hasNext = musics.size() > pageSize;
+        if (hasNext) {
+            musics = musics.subList(0, pageSize);
+        }
+        String nextCursor = hasNext ? CursorCodec.encode(keyset.after(musics.get(musics.size() - 1))) : null;
+        List<MusicResponse> content = musics.stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
+    private MusicKeyset firstPage(String sort, String direction) {
+        try {
+            return MusicKeyset.first(MusicKeyset.Field.fromProperty(sort), Sort.Direction.fromString(direction));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException(ex.getMessage(), ex);
+        }
+    }
+
+    private Map<Long, Music> loadByIds(Set<Long> ids) {
+        List<Long> pending = new ArrayList<>(ids);
+        Map<Long, Music> loaded = new HashMap<>(pending.size() * 2);
+        for (int from = 0; from < pending.size(); from += batchChunkSize) {
+            List<Long> chunk = pending.subList(from, Math.min(pending.size(), from + batchChunkSize));
+            musicRepository.findAllByIdReadOnly(chunk).forEach(music -> loaded.put(music.getId(), music));
+        }
+        return loaded;
+    }
+
+    // Carrega as músicas em uma única consulta mantendo a ordem dos ids
+    private List<Music> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Music> byId = musicRepository.findAllByIdReadOnly(ids).stream()
+                .collect(Collectors.toMap(Music::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private MusicResponse toResponse(Music music) {
+        MusicResponse response = MusicResponse.from(music);
+        if (playCountBuffer.pendingFor(music.getId()) > 0) {
+            response.setPlayCount(currentPlayCount(music));
+        }
+        return response;
+    }
+
+    // Projeções já chegam como MusicResponse: só soma as reproduções pendentes
+    private MusicResponse withPending(MusicResponse response) {
+        long pending = playCountBuffer.pendingFor(response.getId());
+        if (pending > 0) {
+            Long persisted = response.getPlayCount();
+            response.setPlayCount((persisted == null ? 0 : persisted) + pending);
+        }
+        return response;
+    }
+
+    // play_count gravado + reproduções ainda no buffer
+    private long currentPlayCount(Music music) {
+        long persisted = music.getPlayCount() == null ? 0 : music.getPlayCount();
+        return persisted + playCountBuffer.pendingFor(music.getId());
+    }
+
     private Music convertToEntity(MusicRequest musicRequest) {
         Music music = new Music();
         music.setTitle(musicRequest.getTitle());
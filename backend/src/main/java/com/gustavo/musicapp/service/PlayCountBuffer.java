@@ -0,0 +1,296 @@
+package com.gustavo.musicapp.service;
+
+import com.gustavo.musicapp.datasource.RoutingContext;
+import com.gustavo.musicapp.event.PlayCountsFlushedEvent;
+import com.gustavo.musicapp.journal.PlayJournal;
+import com.gustavo.musicapp.repository.MusicRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Acumula reproduções em memória e grava no banco em lote (write-behind).
+ *
+ * Cada música tem um LongAdder próprio, então plays concorrentes na mesma faixa
+ * não disputam lock de linha no MySQL. O flush agrupa as músicas pelo delta
+ * pendente e executa um UPDATE ... WHERE id IN (...) por grupo.
+ */
+@Component
+public class PlayCountBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayCountBuffer.class);
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlayJournal playJournal;
+
+    @Value("${app.music.play-counter.max-batch-size:500}")
+    private int maxBatchSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // Contadores removidos no último flush: drenados de novo no próximo ciclo
+    // para não perder incrementos de threads que ainda tinham a referência
+    private final List<Map.Entry<Long, LongAdder>> retired = new ArrayList<>();
+
+    // Deltas que estão sendo gravados; continuam visíveis até o commit. É
+    // publicado antes de o drain preenchê-lo, e um lote que falhou fica aqui
+    // e entra no próximo, então nenhum delta some das leituras no caminho
+    private volatile Map<Long, Long> inFlight = new ConcurrentHashMap<>();
+
+    // Incrementada antes de cada gravação, com o flush bloqueado: um snapshot
+    // carregado do banco com sequência menor que a do lote não contém o delta
+    private final AtomicLong flushSequence = new AtomicLong();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // record incrementa o contador e grava no diário com a leitura; a
+    // reconstrução pega a escrita para drenar e cortar o diário no mesmo ponto
+    private final ReentrantReadWriteLock recordLock = new ReentrantReadWriteLock();
+    private final AtomicLong oldestPendingNanos = new AtomicLong();
+
+    // Métricas
+    private final LongAdder flushedPlays = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private volatile long lastFlushLagMillis;
+    private volatile int lastBatchSize;
+    private volatile long lastBatchPlays;
+    private volatile long lastFlushDurationMillis;
+
+    @PostConstruct
+    void init() {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void record(Long musicId) {
+        recordLock.readLock().lock();
+        try {
+            pending.computeIfAbsent(musicId, id -> new LongAdder()).increment();
+            playJournal.append(musicId, System.currentTimeMillis());
+        } finally {
+            recordLock.readLock().unlock();
+        }
+        if (oldestPendingNanos.get() == 0) {
+            oldestPendingNanos.compareAndSet(0, System.nanoTime());
+        }
+    }
+
+    /**
+     * Reproduções registradas e ainda não confirmadas no banco para a música.
+     */
+    public long pendingFor(Long musicId) {
+        // inFlight antes do contador: o drain zera o contador antes de somar em
+        // inFlight, então nesta ordem um delta nunca é contado duas vezes
+        long flushing = inFlight.getOrDefault(musicId, 0L);
+        LongAdder adder = pending.get(musicId);
+        return flushing + (adder == null ? 0 : adder.sum());
+    }
+
+    public long flushSequence() {
+        return flushSequence.get();
+    }
+
+    @Scheduled(fixedDelayString = "${app.music.play-counter.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        if (flushLock.tryLock()) {
+            try {
+                flush();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    // No fechamento do contexto, antes de destruir os beans: o flush publica
+    // PlayCountsFlushedEvent para caches e índices que ainda precisam existir
+    @EventListener(ContextClosedEvent.class)
+    public void flushOnShutdown() {
+        flushLock.lock();
+        try {
+            flush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Falso se havia deltas e a gravação falhou
+    private boolean flush() {
+        long started = System.nanoTime();
+        long oldest = oldestPendingNanos.getAndSet(0);
+        Map<Long, Long> deltas = inFlight;
+        drain(deltas);
+        if (deltas.isEmpty()) {
+            return true;
+        }
+
+        long sequence = flushSequence.incrementAndGet();
+        try {
+            persist(deltas);
+        } catch (RuntimeException ex) {
+            // Os deltas continuam em inFlight e vão no próximo lote
+            oldestPendingNanos.compareAndSet(0, oldest == 0 ? started : oldest);
+            failedFlushes.increment();
+            log.warn("Falha ao gravar {} contadores de reprodução, nova tentativa no próximo ciclo", deltas.size(), ex);
+            return false;
+        }
+        inFlight = new ConcurrentHashMap<>();
+
+        eventPublisher.publishEvent(new PlayCountsFlushedEvent(deltas, sequence));
+        long plays = deltas.values().stream().mapToLong(Long::longValue).sum();
+        flushedPlays.add(plays);
+        flushCount.increment();
+        lastBatchSize = deltas.size();
+        lastBatchPlays = plays;
+        lastFlushLagMillis = oldest == 0 ? 0 : (started - oldest) / 1_000_000;
+        lastFlushDurationMillis = (System.nanoTime() - started) / 1_000_000;
+        return true;
+    }
+
+    // Soma em deltas (o inFlight já publicado) o que os contadores acumularam
+    private void drain(Map<Long, Long> deltas) {
+        for (Map.Entry<Long, LongAdder> entry : retired) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                deltas.merge(entry.getKey(), delta, Long::sum);
+            }
+        }
+        retired.clear();
+
+        Iterator<Map.Entry<Long, LongAdder>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, LongAdder> entry = it.next();
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                deltas.merge(entry.getKey(), delta, Long::sum);
+            } else if (pending.remove(entry.getKey(), entry.getValue())) {
+                // Faixa sem plays desde o último ciclo: libera a entrada
+                retired.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+
+    private void persist(Map<Long, Long> deltas) {
+        Map<Long, List<Long>> idsByDelta = new HashMap<>();
+        deltas.forEach((id, delta) -> idsByDelta.computeIfAbsent(delta, key -> new ArrayList<>()).add(id));
+
+        transactionTemplate.executeWithoutResult(status -> idsByDelta.forEach((delta, ids) -> {
+            for (int from = 0; from < ids.size(); from += maxBatchSize) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + maxBatchSize));
+                musicRepository.incrementPlayCounts(chunk, delta);
+            }
+        }));
+    }
+
+    /**
+     * Compara o play_count do banco com o total reconstruído do PlayJournal e,
+     * com apply, grava os valores do diário. O buffer é gravado e o diário
+     * cortado com os plays bloqueados só nesse instante; o que chega depois fica
+     * fora do corte e vai para o banco como delta no próximo flush.
+     */
+    public Map<String, Object> rebuildFromJournal(boolean apply) {
+        flushLock.lock();
+        try {
+            Map<Long, Long> journal = playJournal.replayCounts(this::drainAndCut);
+            Map<Long, Long> stored = new HashMap<>();
+            for (Object[] row : RoutingContext.onPrimary(musicRepository::findPlayCounts)) {
+                stored.put((Long) row[0], (Long) row[1]);
+            }
+
+            Map<Long, Long> corrections = new HashMap<>();
+            journal.forEach((id, count) -> {
+                if (!count.equals(stored.getOrDefault(id, 0L))) {
+                    corrections.put(id, count);
+                }
+            });
+            stored.forEach((id, count) -> {
+                if (!journal.containsKey(id)) {
+                    corrections.put(id, 0L);
+                }
+            });
+
+            if (apply && !corrections.isEmpty()) {
+                Map<Long, List<Long>> idsByCount = new HashMap<>();
+                corrections.forEach((id, count) -> idsByCount.computeIfAbsent(count, key -> new ArrayList<>()).add(id));
+                long sequence = flushSequence.incrementAndGet();
+                transactionTemplate.executeWithoutResult(status -> idsByCount.forEach((count, ids) -> {
+                    for (int from = 0; from < ids.size(); from += maxBatchSize) {
+                        musicRepository.setPlayCounts(ids.subList(from, Math.min(ids.size(), from + maxBatchSize)), count);
+                    }
+                }));
+                // Caches e índices recebem a correção como delta
+                Map<Long, Long> deltas = new HashMap<>();
+                corrections.forEach((id, count) -> deltas.put(id, count - stored.getOrDefault(id, 0L)));
+                eventPublisher.publishEvent(new PlayCountsFlushedEvent(deltas, sequence));
+                log.info("play_count reconstruído a partir do diário para {} músicas", corrections.size());
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("journalTracks", journal.size());
+            report.put("journalPlays", journal.values().stream().mapToLong(Long::longValue).sum());
+            report.put("storedPlays", stored.values().stream().mapToLong(Long::longValue).sum());
+            report.put("mismatchedTracks", corrections.size());
+            report.put("applied", apply && !corrections.isEmpty());
+            return report;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Com flushLock: grava tudo o que já está no diário e devolve o corte
+    private long drainAndCut() {
+        recordLock.writeLock().lock();
+        try {
+            if (!flush()) {
+                throw new IllegalStateException("Falha ao gravar o buffer de reproduções; reconstrução cancelada");
+            }
+            return playJournal.nextSequence();
+        } finally {
+            recordLock.writeLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pendingTracks", pending.size());
+        stats.put("flushCount", flushCount.sum());
+        stats.put("failedFlushes", failedFlushes.sum());
+        stats.put("flushedPlays", flushedPlays.sum());
+        stats.put("lastBatchSize", lastBatchSize);
+        stats.put("lastBatchPlays", lastBatchPlays);
+        stats.put("lastFlushLagMillis", lastFlushLagMillis);
+        stats.put("lastFlushDurationMillis", lastFlushDurationMillis);
+        return stats;
+    }
+}
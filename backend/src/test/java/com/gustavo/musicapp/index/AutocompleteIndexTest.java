@@ -0,0 +1,166 @@
+package com.gustavo.musicapp.index;
+
+import com.gustavo.musicapp.event.MusicPlayedEvent;
+import com.gustavo.musicapp.model.Music;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AutocompleteIndexTest {
+
+    private AutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AutocompleteIndex();
+        ReflectionTestUtils.setField(index, "capacity", 10);
+        index.markReady();
+    }
+
+    @Test
+    void emptyUntilReady() {
+        AutocompleteIndex loading = new AutocompleteIndex();
+        ReflectionTestUtils.setField(loading, "capacity", 10);
+        loading.index(music(1L, "Rock", 0));
+
+        assertThat(loading.suggest("ro", 10)).isEmpty();
+    }
+
+    @Test
+    void insertSplittingAnEdgeKeepsBothBranches() {
+        index.index(music(1L, "Rockstar", 5));
+        // "road" divide a aresta "rockstar" em "ro" + "ckstar"
+        index.index(music(2L, "Road", 3));
+
+        assertThat(titles("ro")).containsExactly("Rockstar", "Road");
+        assertThat(titles("roc")).containsExactly("Rockstar");
+        assertThat(titles("rockstar")).containsExactly("Rockstar");
+        assertThat(titles("roa")).containsExactly("Road");
+        assertThat(titles("rox")).isEmpty();
+    }
+
+    @Test
+    void prefixEndingInsideAnEdgeMatches() {
+        index.index(music(1L, "Thunderstruck", 1));
+
+        assertThat(titles("thun")).containsExactly("Thunderstruck");
+        assertThat(titles("thunderstrucks")).isEmpty();
+    }
+
+    @Test
+    void removalPrunesTheBranch() {
+        index.index(music(1L, "Rockstar", 5));
+        index.index(music(2L, "Road", 3));
+
+        index.remove(2L);
+
+        assertThat(titles("roa")).isEmpty();
+        assertThat(titles("ro")).containsExactly("Rockstar");
+        assertThat(titles("r")).containsExactly("Rockstar");
+    }
+
+    @Test
+    void removingTheLastMusicEmptiesTheTree() {
+        index.index(music(1L, "Rockstar", 5));
+
+        index.remove(1L);
+
+        assertThat(index.suggest("", 10)).hasValueSatisfying(entries -> assertThat(entries).isEmpty());
+        assertThat(titles("r")).isEmpty();
+    }
+
+    @Test
+    void weightDecreaseRecomputesTheRanking() {
+        // Mesmo artista em duas músicas: o peso da sugestão é a soma
+        index.index(music(1L, "Uno", "Alpha", 100));
+        index.index(music(2L, "Dos", "Alpha", 100));
+        index.index(music(3L, "Tres", "Alpine", 150));
+        assertThat(texts("alp")).containsExactly("Alpha", "Alpine");
+
+        // Sai uma das músicas: Alpha cai para 100 e o caminho é recalculado
+        index.remove(2L);
+
+        assertThat(texts("alp")).containsExactly("Alpine", "Alpha");
+        assertThat(index.suggest("alpha", 1).orElseThrow().get(0).getPlays()).isEqualTo(100);
+    }
+
+    @Test
+    void playsPromoteASuggestion() {
+        index.index(music(1L, "Rockstar", 5));
+        index.index(music(2L, "Road", 3));
+
+        index.onMusicPlayed(new MusicPlayedEvent(music(2L, "Road", 3), 10, Instant.now()));
+        index.applyPendingPlays();
+
+        assertThat(titles("ro")).containsExactly("Road", "Rockstar");
+    }
+
+    @Test
+    void matchesFromTheStartOfLaterWords() {
+        index.index(music(1L, "Bohemian Rhapsody", 1));
+
+        assertThat(titles("rhap")).containsExactly("Bohemian Rhapsody");
+        assertThat(titles("boh")).containsExactly("Bohemian Rhapsody");
+        // No meio de uma palavra não casa
+        assertThat(titles("hapso")).isEmpty();
+    }
+
+    @Test
+    void onlyTheFirstWordsAreKeys() {
+        index.index(music(1L, "One Two Three Four Five", 1));
+
+        assertThat(titles("four")).containsExactly("One Two Three Four Five");
+        assertThat(titles("five")).isEmpty();
+    }
+
+    @Test
+    void prefixIsNormalized() {
+        index.index(music(1L, "Canção do Mar", 1));
+
+        assertThat(titles("CANÇ")).containsExactly("Canção do Mar");
+        assertThat(titles("canc")).containsExactly("Canção do Mar");
+    }
+
+    @Test
+    void limitCutsTheList() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(music(id, "Song " + id, id));
+        }
+
+        assertThat(titles("song", 2)).containsExactly("Song 5", "Song 4");
+    }
+
+    private List<String> titles(String prefix) {
+        return titles(prefix, 10);
+    }
+
+    private List<String> titles(String prefix, int limit) {
+        return index.suggest(prefix, limit).orElseThrow().stream()
+                .filter(entry -> entry.getType() == AutocompleteIndex.Type.TITLE)
+                .map(AutocompleteIndex.Entry::getText)
+                .toList();
+    }
+
+    private List<String> texts(String prefix) {
+        return index.suggest(prefix, 10).orElseThrow().stream()
+                .map(AutocompleteIndex.Entry::getText)
+                .toList();
+    }
+
+    // Artista e álbum que não casam com os prefixos dos testes de título
+    private static Music music(Long id, String title, long plays) {
+        return music(id, title, "Zz " + id, plays);
+    }
+
+    private static Music music(Long id, String title, String artist, long plays) {
+        Music music = new Music(title, artist, null, null);
+        music.setId(id);
+        music.setPlayCount(plays);
+        return music;
+    }
+}
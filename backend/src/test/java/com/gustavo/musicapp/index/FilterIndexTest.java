@@ -0,0 +1,137 @@
+package com.gustavo.musicapp.index;
+
+import com.gustavo.musicapp.dto.MusicFilter;
+import com.gustavo.musicapp.event.MusicPlayedEvent;
+import com.gustavo.musicapp.model.Music;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilterIndexTest {
+
+    private FilterIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FilterIndex();
+        index.index(music(1L, "Rock", "Banda A", 1990, 180, 0));
+        index.index(music(2L, "Rock", "Banda B", 2000, 245, 5));
+        index.index(music(3L, "Samba", "Banda A", 2010, 300, 100));
+        index.index(music(4L, "Jazz", null, null, null, 1));
+        index.markReady();
+    }
+
+    @Test
+    void emptyUntilReady() {
+        FilterIndex loading = new FilterIndex();
+        loading.index(music(1L, "Rock", "Banda", 2000, 200, 0));
+
+        assertThat(loading.evaluate(filter(List.of("rock"), null, null, null, null, null, null, true))).isEmpty();
+        assertThat(loading.isReady()).isFalse();
+    }
+
+    @Test
+    void noCriteriaMatchesEverything() {
+        assertThat(ids(filter(null, null, null, null, null, null, null, true))).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void valuesOfTheSameFieldAreOred() {
+        assertThat(ids(filter(List.of("ROCK", "samba"), null, null, null, null, null, null, true)))
+                .containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void fieldsAreAndedOrOred() {
+        MusicFilter all = filter(List.of("rock"), List.of("banda a"), null, null, null, null, null, true);
+        MusicFilter any = filter(List.of("rock"), List.of("banda a"), null, null, null, null, null, false);
+
+        assertThat(ids(all)).containsExactly(1L);
+        assertThat(ids(any)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void yearRangeIsInclusiveAndSkipsMissingYears() {
+        assertThat(ids(filter(null, null, 2000, 2010, null, null, null, true))).containsExactly(2L, 3L);
+        assertThat(ids(filter(null, null, null, 1995, null, null, null, true))).containsExactly(1L);
+        assertThat(ids(filter(null, null, 2011, 2000, null, null, null, true))).isEmpty();
+    }
+
+    @Test
+    void durationRangeRefinesPartialBuckets() {
+        // 245 está na faixa 240-249, que cai só em parte no intervalo
+        assertThat(ids(filter(null, null, null, null, 181, 244, null, true))).isEmpty();
+        assertThat(ids(filter(null, null, null, null, 180, 245, null, true))).containsExactly(1L, 2L);
+        assertThat(ids(filter(null, null, null, null, 246, null, null, true))).containsExactly(3L);
+    }
+
+    @Test
+    void minPlaysRefinesTheEdgeBucket() {
+        // 5 e 6 estão na mesma faixa (4-7)
+        assertThat(ids(filter(null, null, null, null, null, null, 6L, true))).containsExactly(3L);
+        assertThat(ids(filter(null, null, null, null, null, null, 5L, true))).containsExactly(2L, 3L);
+        assertThat(ids(filter(null, null, null, null, null, null, 0L, true))).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void playsMoveTheMusicToAnotherBucket() {
+        index.onMusicPlayed(new MusicPlayedEvent(music(1L, "Rock", "Banda A", 1990, 180, 0), 64, Instant.now()));
+
+        assertThat(ids(filter(null, null, null, null, null, null, 64L, true))).containsExactly(1L, 3L);
+        assertThat(ids(filter(null, null, null, null, null, null, 65L, true))).containsExactly(3L);
+    }
+
+    @Test
+    void reindexAndRemoveUpdateEveryBitmap() {
+        index.index(music(2L, "Samba", "Banda B", 2000, 245, 0));
+        index.remove(3L);
+
+        // Reindexar mantém o maior play_count conhecido
+        assertThat(ids(filter(null, null, null, null, null, null, 5L, true))).containsExactly(2L);
+        assertThat(ids(filter(List.of("samba"), null, null, null, null, null, null, true))).containsExactly(2L);
+        assertThat(ids(filter(List.of("rock"), null, null, null, null, null, null, true))).containsExactly(1L);
+        assertThat(ids(filter(null, List.of("banda a"), null, null, null, null, null, true))).containsExactly(1L);
+    }
+
+    @Test
+    void idsAboveIntRangeTurnTheIndexOff() {
+        index.index(music(Integer.MAX_VALUE + 1L, "Rock", "Banda", 2000, 200, 0));
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.evaluate(filter(null, null, null, null, null, null, null, true))).isEmpty();
+    }
+
+    @Test
+    void pageSkipsToTheOffset() {
+        RoaringBitmap matches = RoaringBitmap.bitmapOf(3, 7, 8, 20, 21);
+
+        assertThat(FilterIndex.page(matches, 1, 3)).containsExactly(7L, 8L, 20L);
+        assertThat(FilterIndex.page(matches, 4, 3)).containsExactly(21L);
+        assertThat(FilterIndex.page(matches, 5, 3)).isEmpty();
+    }
+
+    private List<Long> ids(MusicFilter filter) {
+        RoaringBitmap matches = index.evaluate(filter).orElseThrow();
+        return FilterIndex.page(matches, 0, 100);
+    }
+
+    private static MusicFilter filter(List<String> genres, List<String> artists, Integer yearFrom, Integer yearTo,
+                                      Integer durationFrom, Integer durationTo, Long minPlays, boolean matchAll) {
+        return new MusicFilter(genres, artists, yearFrom, yearTo, durationFrom, durationTo, minPlays, matchAll);
+    }
+
+    private static Music music(Long id, String genre, String artist, Integer year, Integer duration, long plays) {
+        Music music = new Music("Música " + id, artist, null, null);
+        music.setId(id);
+        music.setGenre(genre);
+        music.setReleaseYear(year);
+        music.setDurationSeconds(duration);
+        music.setPlayCount(plays);
+        return music;
+    }
+}
@@ -0,0 +1,102 @@
+package com.gustavo.musicapp.index;
+
+import com.gustavo.musicapp.event.PlayCountsFlushedEvent;
+import com.gustavo.musicapp.model.Music;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RelatedTracksIndexTest {
+
+    private RelatedTracksIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RelatedTracksIndex();
+        ReflectionTestUtils.setField(index, "topN", 20);
+        ReflectionTestUtils.setField(index, "maxCandidates", 500);
+        ReflectionTestUtils.setField(index, "parallelism", 2);
+        index.init();
+
+        index.index(music(1L, "Artista A", "Disco X", "Rock", 2000, 200, 0));
+        index.index(music(2L, "Artista A", "Disco X", "Rock", 2000, 200, 0));
+        index.index(music(3L, "Artista A", "Disco Y", "Pop", 2000, 200, 0));
+        index.index(music(4L, "Artista B", null, "Rock", 2000, 200, 0));
+        index.index(music(5L, "Artista C", null, "Jazz", 1950, 600, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    void computedOnTheFlyBeforeTheBuild() {
+        assertThat(index.related(1L, 10)).containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    void rankedByAlbumThenArtistThenGenre() {
+        index.markReady();
+
+        assertThat(index.related(1L, 10)).containsExactly(2L, 3L, 4L);
+        assertThat(index.related(1L, 2)).containsExactly(2L, 3L);
+        // Sem artista nem gênero em comum não há candidatos
+        assertThat(index.related(5L, 10)).isEmpty();
+        assertThat(index.related(99L, 10)).isEmpty();
+    }
+
+    @Test
+    void writesShowUpAfterTheRefresh() {
+        index.markReady();
+        long generation = index.generation();
+
+        index.index(music(6L, "Artista A", "Disco X", "Rock", 2000, 200, 0));
+        // Lista pronta: ainda a anterior, e o validador não muda antes dela
+        assertThat(index.related(1L, 10)).containsExactly(2L, 3L, 4L);
+        assertThat(index.generation()).isEqualTo(generation);
+
+        index.refreshDirty();
+
+        // Empate com a 2: desempata por reproduções e depois pelo id
+        assertThat(index.related(1L, 10)).containsExactly(2L, 6L, 3L, 4L);
+        assertThat(index.related(6L, 10)).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(index.generation()).isGreaterThan(generation);
+    }
+
+    @Test
+    void removedMusicLeavesTheListsThatContainedIt() {
+        index.markReady();
+
+        index.remove(2L);
+        index.refreshDirty();
+
+        assertThat(index.related(1L, 10)).containsExactly(3L, 4L);
+        assertThat(index.related(3L, 10)).containsExactly(1L);
+        assertThat(index.related(2L, 10)).isEmpty();
+    }
+
+    @Test
+    void playsBreakTies() {
+        index.index(music(6L, "Artista A", "Disco X", "Rock", 2000, 200, 0));
+        index.onPlayCountsFlushed(new PlayCountsFlushedEvent(Map.of(6L, 10L), 1));
+        index.markReady();
+
+        assertThat(index.related(1L, 2)).containsExactly(6L, 2L);
+    }
+
+    private static Music music(Long id, String artist, String album, String genre, Integer year, Integer duration, long plays) {
+        Music music = new Music("Música " + id, artist, album, null);
+        music.setId(id);
+        music.setGenre(genre);
+        music.setReleaseYear(year);
+        music.setDurationSeconds(duration);
+        music.setPlayCount(plays);
+        return music;
+    }
+}
@@ -0,0 +1,124 @@
+package com.gustavo.musicapp.index;
+
+import com.gustavo.musicapp.model.Music;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex();
+        index.markReady();
+    }
+
+    @Test
+    void emptyUntilReady() {
+        SearchIndex loading = new SearchIndex();
+        loading.index(music(1L, "Rock", "Banda", "Disco"));
+
+        assertThat(loading.search("rock", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        index.index(music(1L, "Rock Lento", "Banda", "Disco"));
+        index.index(music(2L, "Rock Rapido", "Banda", "Disco"));
+
+        assertThat(ids("rock lento")).containsExactly(1L);
+        assertThat(ids("rock")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids("rock jazz")).isEmpty();
+    }
+
+    @Test
+    void termsMatchByPrefixFromTwoCharacters() {
+        index.index(music(1L, "Rockstar", "Banda", "Disco"));
+        index.index(music(2L, "R", "Banda", "Disco"));
+
+        assertThat(ids("ro")).containsExactly(1L);
+        // Um caractere só casa com o termo exato
+        assertThat(ids("r")).containsExactly(2L);
+    }
+
+    @Test
+    void titleRanksAboveArtist() {
+        index.index(music(1L, "Outra", "Rock", "Disco"));
+        index.index(music(2L, "Rock", "Banda", "Disco"));
+
+        assertThat(ids("rock")).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void exactTermRanksAbovePrefix() {
+        index.index(music(1L, "Rockstar", "Banda", "Disco"));
+        index.index(music(2L, "Rock", "Banda", "Disco"));
+
+        assertThat(ids("rock")).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void accentsAndCaseAreIgnored() {
+        index.index(music(1L, "Canção", "Banda", "Disco"));
+
+        assertThat(ids("CANCAO")).containsExactly(1L);
+    }
+
+    @Test
+    void removalKeepsTheOtherPostingsFindable() {
+        // Mesmo termo em três músicas: a remoção do meio move a última para a posição liberada
+        index.index(music(1L, "Rock Um", "Banda", "Disco"));
+        index.index(music(2L, "Rock Dois", "Banda", "Disco"));
+        index.index(music(3L, "Rock Tres", "Banda", "Disco"));
+
+        index.remove(2L);
+        assertThat(ids("rock")).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(ids("dois")).isEmpty();
+
+        // A música movida precisa ter a nova posição para sair da lista depois
+        index.remove(3L);
+        assertThat(ids("rock")).containsExactly(1L);
+        assertThat(ids("tres")).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void reindexReplacesTheTerms() {
+        index.index(music(1L, "Rock", "Banda", "Disco"));
+
+        index.index(music(1L, "Samba", "Banda", "Disco"));
+
+        assertThat(ids("rock")).isEmpty();
+        assertThat(ids("samba")).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void pagesAndTotal() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(music(id, "Rock " + id, "Banda", "Disco"));
+        }
+
+        SearchIndex.Hits hits = index.search("rock", 2, 2).orElseThrow();
+
+        // Mesmo score: desempate por id crescente
+        assertThat(hits.getIds()).containsExactly(3L, 4L);
+        assertThat(hits.getTotal()).isEqualTo(5);
+        assertThat(index.search("rock", 5, 2).orElseThrow().getIds()).isEmpty();
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, 0, 10).orElseThrow().getIds();
+    }
+
+    private static Music music(Long id, String title, String artist, String album) {
+        Music music = new Music(title, artist, album, null);
+        music.setId(id);
+        return music;
+    }
+}
@@ -0,0 +1,152 @@
+package com.gustavo.musicapp.journal;
+
+import com.gustavo.musicapp.repository.MusicRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PlayJournalTest {
+
+    private static final int RECORD_SIZE = 20;
+
+    @TempDir
+    Path directory;
+
+    private MusicRepository musicRepository;
+    private PlayJournal journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        musicRepository = mock(MusicRepository.class);
+        // play_count anterior ao diário: vira a base do snapshot
+        List<Object[]> baseline = new ArrayList<>();
+        baseline.add(new Object[]{1L, 5L});
+        when(musicRepository.findPlayCounts()).thenReturn(baseline);
+        journal = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    void replaysTheRecordsAfterARestart() throws IOException {
+        journal.append(1L, 1000L);
+        journal.append(2L, 2000L);
+        journal.append(1L, 3000L);
+
+        journal = restart();
+
+        assertThat(replayed()).containsExactly(List.of(1L, 1000L), List.of(2L, 2000L), List.of(1L, 3000L));
+        assertThat(journal.nextSequence()).isEqualTo(3);
+        assertThat(journal.replayCounts(journal::nextSequence)).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 7L, 2L, 1L));
+    }
+
+    @Test
+    void tornRecordEndsTheJournal() throws IOException {
+        journal.append(1L, 1000L);
+        journal.append(2L, 2000L);
+        journal.close();
+
+        // Queda no meio da escrita do terceiro: id gravado, checksum não
+        writeAt(2, ByteBuffer.allocate(8).putLong(0, 3L).array());
+
+        journal = open();
+
+        assertThat(replayed()).containsExactly(List.of(1L, 1000L), List.of(2L, 2000L));
+        assertThat(journal.nextSequence()).isEqualTo(2);
+    }
+
+    @Test
+    void recordsBeyondTheTearDoNotComeBack() throws IOException {
+        journal.append(1L, 1000L);
+        journal.close();
+
+        // Página gravada fora de ordem: registro íntegro depois de um buraco
+        writeAt(3, record(9L, 9000L));
+
+        journal = open();
+        assertThat(journal.nextSequence()).isEqualTo(1);
+
+        // Os novos registros preenchem o buraco; o antigo não pode emendar neles
+        journal.append(2L, 2000L);
+        journal.append(3L, 3000L);
+        journal = restart();
+
+        assertThat(replayed()).containsExactly(List.of(1L, 1000L), List.of(2L, 2000L), List.of(3L, 3000L));
+        assertThat(journal.nextSequence()).isEqualTo(3);
+    }
+
+    @Test
+    void replayCountsStopsAtTheCut() {
+        journal.append(1L, 1000L);
+        journal.append(2L, 2000L);
+        long cut = journal.nextSequence();
+        journal.append(2L, 3000L);
+
+        assertThat(journal.replayCounts(() -> cut)).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 6L, 2L, 1L));
+        assertThat(journal.replayCounts(() -> 0L)).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 5L));
+    }
+
+    private PlayJournal restart() throws IOException {
+        journal.close();
+        return open();
+    }
+
+    private PlayJournal open() throws IOException {
+        PlayJournal opened = new PlayJournal();
+        ReflectionTestUtils.setField(opened, "musicRepository", musicRepository);
+        ReflectionTestUtils.setField(opened, "enabled", true);
+        ReflectionTestUtils.setField(opened, "path", directory.toString());
+        ReflectionTestUtils.setField(opened, "segmentSizeMb", 1);
+        ReflectionTestUtils.setField(opened, "syncIntervalMs", 10L);
+        ReflectionTestUtils.setField(opened, "retainedSegments", 4);
+        opened.init();
+        return opened;
+    }
+
+    private List<List<Long>> replayed() {
+        List<List<Long>> records = new ArrayList<>();
+        journal.replay((musicId, epochMillis) -> records.add(List.of(musicId, epochMillis)));
+        return records;
+    }
+
+    private static byte[] record(long musicId, long epochMillis) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        buffer.putLong(musicId).putLong(epochMillis);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, 16);
+        buffer.putInt((int) crc.getValue());
+        return buffer.array();
+    }
+
+    // Escreve direto no único segmento, como se fosse o que chegou ao disco antes da queda
+    private void writeAt(int index, byte[] bytes) throws IOException {
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.getFileName().toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), (long) index * RECORD_SIZE);
+        }
+    }
+}
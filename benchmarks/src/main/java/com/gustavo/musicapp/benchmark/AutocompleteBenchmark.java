@@ -0,0 +1,70 @@
+package com.gustavo.musicapp.benchmark;
+
+import com.gustavo.musicapp.dto.Suggestion;
+import com.gustavo.musicapp.model.Music;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MusicService.autocomplete pelo AutocompleteIndex contra o LIKE 'prefixo%'
+ * no banco que o serviço usa enquanto o índice carrega.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class AutocompleteBenchmark {
+
+    private static final int LIMIT = 10;
+
+    @State(Scope.Benchmark)
+    public static class Prefixes {
+
+        // Caracteres digitados: prefixos curtos casam com boa parte do catálogo
+        @Param({"1", "3"})
+        public int length;
+
+        private List<String> prefixes;
+
+        @Setup(Level.Trial)
+        public void setup(CatalogState state) {
+            prefixes = state.searchTerms.stream()
+                    .map(term -> term.substring(0, Math.min(length, term.length())))
+                    .distinct()
+                    .toList();
+        }
+
+        String next() {
+            return prefixes.get(ThreadLocalRandom.current().nextInt(prefixes.size()));
+        }
+    }
+
+    @Benchmark
+    public List<Suggestion> fromIndex(CatalogState state, Prefixes prefixes) {
+        return state.musicService.autocomplete(prefixes.next(), LIMIT);
+    }
+
+    // Os títulos do catálogo sintético começam em maiúscula e o LIKE do H2 diferencia caixa
+    @Benchmark
+    public List<Music> fromDatabase(CatalogState state, Prefixes prefixes) {
+        String prefix = prefixes.next();
+        String pattern = Character.toUpperCase(prefix.charAt(0)) + prefix.substring(1) + "%";
+        return state.musicRepository.findByTitlePrefixReadOnly(pattern, PageRequest.of(0, LIMIT));
+    }
+}
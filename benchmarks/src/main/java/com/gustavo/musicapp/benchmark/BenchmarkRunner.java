@@ -0,0 +1,45 @@
+package com.gustavo.musicapp.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Ponto de entrada dos benchmarks. Aceita as mesmas opções da linha de comando
+ * do JMH; sem -rf/-rff, grava o resultado em JSON em
+ * target/jmh/result-<data>.json para comparar execuções de commits diferentes.
+ */
+public class BenchmarkRunner {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp()) {
+            cli.showHelp();
+            return;
+        }
+
+        ResultFormatType format = cli.getResultFormat().orElse(ResultFormatType.JSON);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli).resultFormat(format);
+        if (!cli.getResult().hasValue()) {
+            File directory = new File("target/jmh");
+            directory.mkdirs();
+            String name = "result-" + LocalDateTime.now().format(FILE_TIMESTAMP) + "." + format.name().toLowerCase();
+            options.result(new File(directory, name).getPath());
+        }
+
+        Runner runner = new Runner(options.build());
+        if (cli.shouldList()) {
+            runner.list();
+        } else {
+            runner.run();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.gustavo.musicapp.benchmark;
+
+import com.gustavo.musicapp.MusicAppApplication;
+import com.gustavo.musicapp.index.CatalogIndex;
+import com.gustavo.musicapp.repository.MusicRepository;
+import com.gustavo.musicapp.service.MusicService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Aplicação completa sobre um H2 em memória com o catálogo sintético.
+ *
+ * O catálogo é inserido no ApplicationStartedEvent, antes do
+ * ApplicationReadyEvent que dispara a carga dos índices em memória; o setup só
+ * termina quando todos os índices estão prontos.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+
+    private static final long SEED = 42;
+    private static final long INDEX_TIMEOUT_MILLIS = 10 * 60 * 1000;
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    public ConfigurableApplicationContext context;
+    public MusicService musicService;
+    public MusicRepository musicRepository;
+    public SyntheticCatalog catalog;
+    public List<String> searchTerms;
+
+    @Setup(Level.Trial)
+    public void start() throws InterruptedException {
+        catalog = new SyntheticCatalog(SEED);
+        searchTerms = catalog.searchTerms();
+
+        context = new SpringApplicationBuilder(MusicAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .listeners(new Seeder(catalog, catalogSize))
+                .run(arguments());
+        musicService = context.getBean(MusicService.class);
+        musicRepository = context.getBean(MusicRepository.class);
+        awaitIndexes();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    // Ids são atribuídos em sequência a partir de 1 pelo IDENTITY
+    public long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, catalogSize + 1);
+    }
+
+    public String randomSearchTerm() {
+        return searchTerms.get(ThreadLocalRandom.current().nextInt(searchTerms.size()));
+    }
+
+    private void awaitIndexes() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + INDEX_TIMEOUT_MILLIS;
+        Map<String, CatalogIndex> indexes = context.getBeansOfType(CatalogIndex.class);
+        while (!indexes.values().stream().allMatch(CatalogIndex::isReady)) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Índices do catálogo não ficaram prontos a tempo");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    // Como argumentos de linha de comando: as propriedades padrão do builder perdem para o application.yml
+    private static String[] arguments() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+        properties.put("spring.jpa.properties.hibernate.use_sql_comments", "false");
+        // Diário de reproduções novo a cada fork, fora do diretório do projeto
+        properties.put("app.music.journal.path",
+                Paths.get(System.getProperty("java.io.tmpdir"), "musicapp-bench-journal-" + System.nanoTime()).toString());
+        properties.put("logging.file.name", "");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.gustavo.musicapp", "WARN");
+        properties.put("logging.level.org.springframework.security", "WARN");
+        return properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+    }
+
+    private static final class Seeder implements ApplicationListener<ApplicationStartedEvent> {
+        private final SyntheticCatalog catalog;
+        private final int size;
+
+        Seeder(SyntheticCatalog catalog, int size) {
+            this.catalog = catalog;
+            this.size = size;
+        }
+
+        @Override
+        public void onApplicationEvent(ApplicationStartedEvent event) {
+            try {
+                catalog.seed(event.getApplicationContext().getBean(DataSource.class), size);
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Falha ao inserir o catálogo sintético", ex);
+            }
+        }
+    }
+}
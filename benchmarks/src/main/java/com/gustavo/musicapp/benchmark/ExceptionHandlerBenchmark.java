@@ -0,0 +1,91 @@
+package com.gustavo.musicapp.benchmark;
+
+import com.gustavo.musicapp.exception.DuplicateMusicException;
+import com.gustavo.musicapp.exception.GlobalExceptionHandler;
+import com.gustavo.musicapp.exception.MusicNotFoundException;
+import com.gustavo.musicapp.model.Music;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminhos de erro do GlobalExceptionHandler, incluindo a criação da exceção
+ * (com stack trace), como acontece numa requisição real.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private WebRequest request;
+    private MethodParameter parameter;
+
+    @Setup(Level.Trial)
+    public void setup() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler();
+        request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/music/999999999"));
+        parameter = new MethodParameter(ExceptionHandlerBenchmark.class.getDeclaredMethod("addMusic", Music.class), 0);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> notFound() {
+        return handler.handleMusicNotFoundException(
+                new MusicNotFoundException("Música não encontrada com ID: 999999999"), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> duplicate() {
+        return handler.handleDuplicateMusicException(
+                new DuplicateMusicException("URL já está sendo utilizada por outra música"), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> validation() {
+        BeanPropertyBindingResult result = new BeanPropertyBindingResult(new Music(), "music");
+        result.rejectValue("title", "NotBlank", "Título é obrigatório");
+        result.rejectValue("artist", "NotBlank", "Artista é obrigatório");
+        return handler.handleValidationExceptions(new MethodArgumentNotValidException(parameter, result), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> unexpected() {
+        return handler.handleGlobalException(new IllegalStateException("falha inesperada"), request);
+    }
+
+    // Id inexistente pelo serviço: cache negativo, exceção e handler
+    @Benchmark
+    public ResponseEntity<?> notFoundThroughService(CatalogState state) {
+        try {
+            state.musicService.getMusicById(-1L);
+            throw new IllegalStateException("Música -1 não deveria existir");
+        } catch (MusicNotFoundException ex) {
+            return handler.handleMusicNotFoundException(ex, request);
+        }
+    }
+
+    // Alvo do MethodParameter usado na validação
+    @SuppressWarnings("unused")
+    private void addMusic(Music music) {
+    }
+}
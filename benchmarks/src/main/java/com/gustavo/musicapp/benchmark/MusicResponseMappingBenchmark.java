@@ -0,0 +1,69 @@
+package com.gustavo.musicapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gustavo.musicapp.dto.MusicResponse;
+import com.gustavo.musicapp.model.Music;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão Music -> MusicResponse de uma página e a serialização JSON dela,
+ * sem banco nem contexto Spring.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MusicResponseMappingBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private List<Music> musics;
+    private List<MusicResponse> responses;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticCatalog catalog = new SyntheticCatalog(42);
+        musics = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Music music = catalog.track(i);
+            music.setId(i + 1L);
+            musics.add(music);
+        }
+        responses = mapPage();
+        // Mesmos módulos que o Spring Boot registra no ObjectMapper da aplicação
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public List<MusicResponse> mapPage() {
+        List<MusicResponse> result = new ArrayList<>(musics.size());
+        for (Music music : musics) {
+            result.add(MusicResponse.from(music));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+}
@@ -0,0 +1,66 @@
+package com.gustavo.musicapp.benchmark;
+
+import com.gustavo.musicapp.dto.CursorPage;
+import com.gustavo.musicapp.dto.MusicResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getAllMusics (OFFSET + COUNT) contra getAllMusicsByCursor (keyset) na mesma
+ * profundidade, ordenando por título.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class PagingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @State(Scope.Benchmark)
+    public static class Position {
+
+        // Número da página; precisa caber no catálogo (10k músicas = 500 páginas)
+        @Param({"0", "250"})
+        public int page;
+
+        String cursor;
+
+        @Setup(Level.Trial)
+        public void walk(CatalogState state) {
+            for (int i = 0; i < page; i++) {
+                CursorPage<MusicResponse> current = state.musicService.getAllMusicsByCursor(cursor, "title", "asc", PAGE_SIZE);
+                if (!current.isHasNext()) {
+                    throw new IllegalStateException("Catálogo menor que a página " + page);
+                }
+                cursor = current.getNextCursor();
+            }
+        }
+    }
+
+    @Benchmark
+    public Page<MusicResponse> offsetPage(CatalogState state, Position position) {
+        return state.musicService.getAllMusics(PageRequest.of(position.page, PAGE_SIZE, Sort.by("title")));
+    }
+
+    @Benchmark
+    public CursorPage<MusicResponse> cursorPage(CatalogState state, Position position) {
+        return state.musicService.getAllMusicsByCursor(position.cursor, "title", "asc", PAGE_SIZE);
+    }
+}
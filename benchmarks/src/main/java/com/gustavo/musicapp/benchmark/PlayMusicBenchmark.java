@@ -0,0 +1,37 @@
+package com.gustavo.musicapp.benchmark;
+
+import com.gustavo.musicapp.dto.MusicResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MusicService.playMusic com várias threads: reproduções espalhadas pelo
+ * catálogo e todas na mesma música (contenção máxima no contador e no ranking).
+ * O flush em lote do PlayCountBuffer continua rodando em segundo plano.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@Threads(8)
+public class PlayMusicBenchmark {
+
+    @Benchmark
+    public MusicResponse playRandomTrack(CatalogState state) {
+        return state.musicService.playMusic(state.randomId());
+    }
+
+    @Benchmark
+    public MusicResponse playHotTrack(CatalogState state) {
+        return state.musicService.playMusic(1L);
+    }
+}
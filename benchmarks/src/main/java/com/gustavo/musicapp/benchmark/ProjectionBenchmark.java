@@ -0,0 +1,59 @@
+package com.gustavo.musicapp.benchmark;
+
+import com.gustavo.musicapp.dto.MusicResponse;
+import com.gustavo.musicapp.model.Music;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesma página lida como entidades gerenciadas (findAll) e pela projeção de
+ * construtor direto na MusicResponse usada nos endpoints de listagem
+ * (findAllProjected). As duas rodam numa transação readOnly, como no
+ * MusicService.getAllMusics; sem ela o Spring Data abre a transação só para o
+ * findAll e a comparação deixa de ser justa.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ProjectionBenchmark {
+
+    private static final Pageable PAGE = PageRequest.of(0, 100, Sort.by("createdAt").descending());
+
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogState state) {
+        readOnly = new TransactionTemplate(state.context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+
+    @Benchmark
+    public Page<Music> entities(CatalogState state) {
+        return readOnly.execute(status -> state.musicRepository.findAll(PAGE));
+    }
+
+    @Benchmark
+    public Page<MusicResponse> projection(CatalogState state) {
+        return readOnly.execute(status -> state.musicRepository.findAllProjected(PAGE));
+    }
+}
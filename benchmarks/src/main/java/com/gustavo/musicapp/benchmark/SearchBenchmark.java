@@ -0,0 +1,37 @@
+package com.gustavo.musicapp.benchmark;
+
+import com.gustavo.musicapp.dto.MusicResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MusicService.searchMusics: relevância (SearchIndex) e ordenação explícita
+ * (LIKE no banco).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class SearchBenchmark {
+
+    @Benchmark
+    public Page<MusicResponse> searchByRelevance(CatalogState state) {
+        return state.musicService.searchMusics(state.randomSearchTerm(), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<MusicResponse> searchSortedByTitle(CatalogState state) {
+        return state.musicService.searchMusics(state.randomSearchTerm(), PageRequest.of(0, 20, Sort.by("title")));
+    }
+}
@@ -0,0 +1,89 @@
+package com.gustavo.musicapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gustavo.musicapp.dto.MusicResponse;
+import com.gustavo.musicapp.model.Music;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialização de uma Page<MusicResponse> (mesmo formato de GET /api/music) em
+ * JSON, Smile e CBOR, com e sem gzip. O tamanho em bytes de cada formato é
+ * impresso no início de cada fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationFormatBenchmark {
+
+    private static final int CATALOG_SIZE = 10_000;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private Page<MusicResponse> page;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        SyntheticCatalog catalog = new SyntheticCatalog(42);
+        List<MusicResponse> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Music music = catalog.track(i);
+            music.setId(i + 1L);
+            content.add(MusicResponse.from(music));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), CATALOG_SIZE);
+        // Mesmos módulos do ObjectMapper da aplicação (ver BinaryFormatsConfig)
+        objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> throw new IllegalArgumentException("Formato desconhecido: " + format);
+        };
+        System.out.printf("%n%s, %d músicas: %d bytes, %d bytes com gzip%n",
+                format, pageSize, serialize().length, serializeGzip().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    // Mesmo custo que a compressão do Tomcat acrescenta acima de server.compression.min-response-size
+    @Benchmark
+    public byte[] serializeGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, page);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,162 @@
+package com.gustavo.musicapp.benchmark;
+
+import com.gustavo.musicapp.model.Music;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Catálogo sintético determinístico: a mesma semente gera as mesmas músicas,
+ * então resultados de commits diferentes são comparáveis.
+ *
+ * Palavras dos títulos, artistas e reproduções seguem distribuições
+ * concentradas (poucos valores muito frequentes e uma cauda longa), como num
+ * catálogo real.
+ */
+public class SyntheticCatalog {
+
+    private static final String[] SYLLABLES = {
+            "la", "mi", "so", "ra", "ve", "lu", "na", "to", "ca", "de", "ri", "mo", "sa", "be", "co",
+            "fa", "ne", "pi", "ta", "zu", "ma", "lo", "ki", "ro", "se", "du", "ga", "vi", "no", "re"
+    };
+
+    private static final String[] GENRES = {
+            "Rock", "Pop", "Jazz", "Samba", "MPB", "Bossa Nova", "Forró", "Funk", "Hip Hop", "Eletrônica",
+            "Reggae", "Blues", "Clássica", "Metal", "Sertanejo", "Pagode", "Indie", "Soul", "R&B", "Country"
+    };
+
+    private static final int VOCABULARY_SIZE = 5000;
+    private static final int TRACKS_PER_ARTIST = 20;
+    private static final int TRACKS_PER_ALBUM = 10;
+    private static final int INSERT_BATCH_SIZE = 5000;
+
+    private final long seed;
+    private final String[] vocabulary;
+
+    public SyntheticCatalog(long seed) {
+        this.seed = seed;
+        this.vocabulary = buildVocabulary(new Random(seed));
+    }
+
+    /**
+     * Música de posição "index" (0-based). O id fica nulo: é atribuído pelo
+     * banco na ordem de inserção, então a posição i vira o id i + 1.
+     */
+    public Music track(int index) {
+        Random random = new Random(seed * 31 + index);
+        int artist = index / TRACKS_PER_ARTIST;
+
+        Music music = new Music(uniqueTitle(index, title(random)), "Artista " + word(artist), "Álbum " + word(index / TRACKS_PER_ALBUM),
+                "https://cdn.aura.local/tracks/" + index + ".mp3");
+        music.setGenre(GENRES[skewed(random, GENRES.length)]);
+        music.setDurationSeconds(90 + random.nextInt(360));
+        music.setReleaseYear(1960 + random.nextInt(65));
+        music.setPlayCount((long) (Math.pow(random.nextDouble(), 8) * 1_000_000));
+        music.setCreatedAt(LocalDateTime.of(2020, 1, 1, 0, 0).plusMinutes(index));
+        music.setUpdatedAt(music.getCreatedAt());
+        return music;
+    }
+
+    // Termos de busca: os mais frequentes, alguns da cauda e prefixos curtos
+    public List<String> searchTerms() {
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            terms.add(vocabulary[i]);
+        }
+        for (int i = VOCABULARY_SIZE / 2; i < VOCABULARY_SIZE / 2 + 8; i++) {
+            terms.add(vocabulary[i]);
+        }
+        for (int i = 0; i < 4; i++) {
+            terms.add(vocabulary[i * 7].substring(0, 3));
+            terms.add(vocabulary[i] + " " + vocabulary[i + 1]);
+        }
+        return terms;
+    }
+
+    // Inserção via JDBC em lotes; roda antes de os índices em memória serem carregados
+    public void seed(DataSource dataSource, int size) throws SQLException {
+        String sql = "INSERT INTO musics (title, artist, album, url, duration_seconds, genre, release_year, " +
+                "play_count, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < size; i++) {
+                    Music music = track(i);
+                    statement.setString(1, music.getTitle());
+                    statement.setString(2, music.getArtist());
+                    statement.setString(3, music.getAlbum());
+                    statement.setString(4, music.getUrl());
+                    statement.setInt(5, music.getDurationSeconds());
+                    statement.setString(6, music.getGenre());
+                    statement.setInt(7, music.getReleaseYear());
+                    statement.setLong(8, music.getPlayCount());
+                    statement.setTimestamp(9, Timestamp.valueOf(music.getCreatedAt()));
+                    statement.setTimestamp(10, Timestamp.valueOf(music.getUpdatedAt()));
+                    statement.addBatch();
+                    if ((i + 1) % INSERT_BATCH_SIZE == 0) {
+                        statement.executeBatch();
+                        connection.commit();
+                    }
+                }
+                statement.executeBatch();
+                connection.commit();
+            }
+        }
+    }
+
+    private String title(Random random) {
+        int words = 1 + random.nextInt(4);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            String word = vocabulary[skewed(random, VOCABULARY_SIZE)];
+            title.append(i == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word);
+        }
+        return title.toString();
+    }
+
+    // Título repetido dentro do mesmo artista ganha o número da faixa (uk_music_title_artist)
+    private String uniqueTitle(int index, String title) {
+        for (int i = index - index % TRACKS_PER_ARTIST; i < index; i++) {
+            if (title(new Random(seed * 31 + i)).equals(title)) {
+                return title + " " + (index % TRACKS_PER_ARTIST + 1);
+            }
+        }
+        return title;
+    }
+
+    private String word(int index) {
+        String word = vocabulary[index % VOCABULARY_SIZE];
+        String name = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+        return index < VOCABULARY_SIZE ? name : name + " " + (index / VOCABULARY_SIZE);
+    }
+
+    // Índices baixos bem mais prováveis que os altos
+    private static int skewed(Random random, int bound) {
+        return (int) (Math.pow(random.nextDouble(), 3) * bound);
+    }
+
+    private static String[] buildVocabulary(Random random) {
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < VOCABULARY_SIZE) {
+            int syllables = 2 + random.nextInt(3);
+            StringBuilder word = new StringBuilder();
+            for (int i = 0; i < syllables; i++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words.add(word.toString());
+        }
+        return words.toArray(new String[0]);
+    }
+}
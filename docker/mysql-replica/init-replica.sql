@@ -0,0 +1,12 @@
+-- Roda só na primeira subida da réplica (docker-entrypoint-initdb.d).
+-- Posição por GTID: a réplica recebe todo o binlog do primário, inclusive o schema.sql.
+CHANGE REPLICATION SOURCE TO
+    SOURCE_HOST = 'mysql',
+    SOURCE_PORT = 3306,
+    SOURCE_USER = 'root',
+    SOURCE_PASSWORD = 'root',
+    SOURCE_AUTO_POSITION = 1,
+    SOURCE_CONNECT_RETRY = 5,
+    GET_SOURCE_PUBLIC_KEY = 1;
+
+START REPLICA;
@@ -0,0 +1,143 @@
+package com.gustavo.musicapp.loadtest;
+
+import com.gustavo.musicapp.MusicAppApplication;
+import com.gustavo.musicapp.index.CatalogIndex;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Aplicação completa no próprio processo, numa porta livre, sobre um H2 em
+ * memória ou sobre o banco informado em --db-url. O catálogo sintético é
+ * inserido antes da carga dos índices em memória (só se a tabela estiver
+ * vazia), e o start só retorna quando todos os índices estão prontos.
+ *
+ * A segurança do Spring Boot fica desligada: a aplicação ainda não tem
+ * autenticação configurada, e a senha gerada bloquearia todas as chamadas.
+ */
+public class EmbeddedApp implements AutoCloseable {
+
+    private static final long INDEX_TIMEOUT_MILLIS = 10 * 60 * 1000;
+
+    private static final String SECURITY_AUTO_CONFIGURATION = String.join(",",
+            "org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration",
+            "org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration",
+            "org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration",
+            "org.springframework.boot.actuate.autoconfigure.security.servlet.ManagementWebSecurityAutoConfiguration");
+
+    private final ConfigurableApplicationContext context;
+    private final long minId;
+    private final long maxId;
+
+    private EmbeddedApp(ConfigurableApplicationContext context, long minId, long maxId) {
+        this.context = context;
+        this.minId = minId;
+        this.maxId = maxId;
+    }
+
+    public static EmbeddedApp start(LoadTestOptions options, SyntheticCatalog catalog) throws InterruptedException, SQLException {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MusicAppApplication.class)
+                .listeners(new Seeder(catalog, options.getCatalogSize()))
+                .run(arguments(options));
+        awaitIndexes(context);
+        try (Connection connection = context.getBean(DataSource.class).getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet range = statement.executeQuery("SELECT MIN(id), MAX(id) FROM musics")) {
+            range.next();
+            return new EmbeddedApp(context, range.getLong(1), range.getLong(2));
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    public long getMinId() {
+        return minId;
+    }
+
+    public long getMaxId() {
+        return maxId;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private static void awaitIndexes(ConfigurableApplicationContext context) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + INDEX_TIMEOUT_MILLIS;
+        Map<String, CatalogIndex> indexes = context.getBeansOfType(CatalogIndex.class);
+        while (!indexes.values().stream().allMatch(CatalogIndex::isReady)) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Índices do catálogo não ficaram prontos a tempo");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    // Como argumentos de linha de comando: as propriedades padrão do builder perdem para o application.yml
+    private static String[] arguments(LoadTestOptions options) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("server.port", "0");
+        properties.put("spring.autoconfigure.exclude", SECURITY_AUTO_CONFIGURATION);
+        if (options.getDbUrl().isBlank()) {
+            properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1");
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        } else {
+            properties.put("spring.datasource.url", options.getDbUrl());
+            properties.put("spring.datasource.username", options.getDbUsername());
+            properties.put("spring.datasource.password", options.getDbPassword());
+        }
+        properties.put("spring.threads.virtual.enabled", Boolean.toString(options.isVirtualThreads()));
+        properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+        properties.put("spring.jpa.properties.hibernate.use_sql_comments", "false");
+        // Cada cliente simulado tem os próprios baldes no controle de admissão
+        properties.put("app.music.admission.client-header", "X-Client-Id");
+        // Diário de reproduções novo a cada execução, fora do diretório do projeto
+        properties.put("app.music.journal.path",
+                Paths.get(System.getProperty("java.io.tmpdir"), "musicapp-loadtest-journal-" + System.nanoTime()).toString());
+        properties.put("logging.file.name", "");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.gustavo.musicapp", "WARN");
+        properties.put("logging.level.org.springframework.security", "WARN");
+        return properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+    }
+
+    private static final class Seeder implements ApplicationListener<ApplicationStartedEvent> {
+        private final SyntheticCatalog catalog;
+        private final int size;
+
+        Seeder(SyntheticCatalog catalog, int size) {
+            this.catalog = catalog;
+            this.size = size;
+        }
+
+        @Override
+        public void onApplicationEvent(ApplicationStartedEvent event) {
+            try {
+                catalog.seedIfEmpty(event.getApplicationContext().getBean(DataSource.class), size);
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Falha ao inserir o catálogo sintético", ex);
+            }
+        }
+    }
+}
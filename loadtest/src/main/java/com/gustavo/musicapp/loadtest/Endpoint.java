@@ -0,0 +1,65 @@
+package com.gustavo.musicapp.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Endpoints do MusicController que entram na mistura de carga.
+ */
+public enum Endpoint {
+
+    LIST {
+        @Override
+        HttpRequest.Builder request(Workload workload, Random random) {
+            return HttpRequest.newBuilder(workload.uri("/api/music?size=20&page=" + workload.randomPage(random, 20))).GET();
+        }
+    },
+    SEARCH {
+        @Override
+        HttpRequest.Builder request(Workload workload, Random random) {
+            return HttpRequest.newBuilder(workload.uri("/api/music/search?size=20&query=" + workload.randomSearchTerm(random))).GET();
+        }
+    },
+    GENRE {
+        @Override
+        HttpRequest.Builder request(Workload workload, Random random) {
+            return HttpRequest.newBuilder(workload.uri("/api/music/genre/" + workload.randomGenre(random) + "?size=20")).GET();
+        }
+    },
+    PLAY {
+        @Override
+        HttpRequest.Builder request(Workload workload, Random random) {
+            return HttpRequest.newBuilder(workload.uri("/api/music/" + workload.randomId(random) + "/play"))
+                    .POST(HttpRequest.BodyPublishers.noBody());
+        }
+    },
+    POPULAR {
+        @Override
+        HttpRequest.Builder request(Workload workload, Random random) {
+            return HttpRequest.newBuilder(workload.uri("/api/music/popular?limit=10")).GET();
+        }
+    },
+    ADD {
+        @Override
+        HttpRequest.Builder request(Workload workload, Random random) {
+            return HttpRequest.newBuilder(workload.uri("/api/music"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(workload.newMusicJson(random)));
+        }
+    };
+
+    abstract HttpRequest.Builder request(Workload workload, Random random);
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static Endpoint fromName(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Endpoint desconhecido: " + name + " (use list, search, genre, play, popular ou add)");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.gustavo.musicapp.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resultados de um endpoint numa fase da execução. A latência, em
+ * microssegundos, vai para um Recorder (gravação sem lock) e só as respostas
+ * 2xx entram no histograma; recusas e erros são contados à parte.
+ */
+public class EndpointStats {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Recorder recorder = new Recorder(HIGHEST_MICROS, 3);
+    private final Histogram total = new Histogram(HIGHEST_MICROS, 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    void record(int status, long latencyNanos) {
+        if (status >= 200 && status < 300) {
+            recorder.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+            ok.increment();
+        } else if (status == 429 || status == 503) {
+            shed.increment();
+        } else {
+            errors.increment();
+        }
+    }
+
+    // Falha de conexão ou timeout
+    void failed() {
+        errors.increment();
+    }
+
+    // Chegada descartada pelo gerador por excesso de requisições em andamento
+    void dropped() {
+        dropped.increment();
+    }
+
+    // Histograma acumulado desde o início da fase; não chamar em paralelo
+    synchronized Histogram histogram() {
+        total.add(recorder.getIntervalHistogram());
+        return total;
+    }
+
+    long getOk() {
+        return ok.sum();
+    }
+
+    long getShed() {
+        return shed.sum();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    long getDropped() {
+        return dropped.sum();
+    }
+
+    long getAttempts() {
+        return getOk() + getShed() + getErrors() + getDropped();
+    }
+}
@@ -0,0 +1,121 @@
+package com.gustavo.musicapp.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Orçamentos da execução, ex.: "*.p99=250ms,search.p99=100ms,all.errors=1%".
+ * O alvo é um endpoint, "*" (cada endpoint) ou "all" (todos somados); a
+ * métrica é p50, p90, p99, p999 ou max (em ms, ou com sufixo ms/s) ou errors
+ * (fração das chegadas sem resposta 2xx, em % ou decimal).
+ */
+public class LatencyBudget {
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    public static LatencyBudget parse(String spec) {
+        LatencyBudget budget = new LatencyBudget();
+        if (spec == null || spec.isBlank()) {
+            return budget;
+        }
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split("=");
+            int dot = parts[0].lastIndexOf('.');
+            if (parts.length != 2 || dot < 1) {
+                throw new IllegalArgumentException("Orçamento inválido: " + entry + " (use alvo.métrica=valor)");
+            }
+            String target = parts[0].substring(0, dot).trim().toLowerCase(Locale.ROOT);
+            String metric = parts[0].substring(dot + 1).trim().toLowerCase(Locale.ROOT);
+            if (!target.equals("*") && !target.equals("all")) {
+                Endpoint.fromName(target);
+            }
+            budget.rules.add(new Rule(target, metric, limit(metric, parts[1].trim().toLowerCase(Locale.ROOT))));
+        }
+        return budget;
+    }
+
+    // Violações encontradas; vazio se a execução passou
+    public List<String> check(Map<Endpoint, EndpointStats> stats, EndpointStats all) {
+        List<String> violations = new ArrayList<>();
+        for (Rule rule : rules) {
+            if (rule.target.equals("all")) {
+                rule.check("all", all, violations);
+            } else {
+                stats.forEach((endpoint, endpointStats) -> {
+                    if (rule.target.equals("*") || rule.target.equals(endpoint.label())) {
+                        rule.check(endpoint.label(), endpointStats, violations);
+                    }
+                });
+            }
+        }
+        return violations;
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    private static double limit(String metric, String value) {
+        if (metric.equals("errors")) {
+            return value.endsWith("%") ? Double.parseDouble(value.substring(0, value.length() - 1)) / 100
+                    : Double.parseDouble(value);
+        }
+        if (percentile(metric) < 0) {
+            throw new IllegalArgumentException("Métrica desconhecida: " + metric + " (use p50, p90, p99, p999, max ou errors)");
+        }
+        if (value.endsWith("ms")) {
+            return Double.parseDouble(value.substring(0, value.length() - 2));
+        }
+        if (value.endsWith("s")) {
+            return Double.parseDouble(value.substring(0, value.length() - 1)) * 1000;
+        }
+        return Double.parseDouble(value);
+    }
+
+    private static double percentile(String metric) {
+        return switch (metric) {
+            case "p50" -> 50;
+            case "p90" -> 90;
+            case "p99" -> 99;
+            case "p999" -> 99.9;
+            case "max" -> 100;
+            default -> -1;
+        };
+    }
+
+    private static final class Rule {
+        private final String target;
+        private final String metric;
+        private final double limit;
+
+        Rule(String target, String metric, double limit) {
+            this.target = target;
+            this.metric = metric;
+            this.limit = limit;
+        }
+
+        void check(String name, EndpointStats stats, List<String> violations) {
+            if (metric.equals("errors")) {
+                long attempts = stats.getAttempts();
+                double rate = attempts == 0 ? 0 : (double) (attempts - stats.getOk()) / attempts;
+                if (rate > limit) {
+                    violations.add(String.format(Locale.ROOT, "%s.errors = %.2f%% (limite %.2f%%)", name, rate * 100, limit * 100));
+                }
+                return;
+            }
+            Histogram histogram = stats.histogram();
+            if (histogram.getTotalCount() == 0) {
+                violations.add(name + "." + metric + ": nenhuma resposta 2xx");
+                return;
+            }
+            double millis = histogram.getValueAtPercentile(percentile(metric)) / 1000.0;
+            if (millis > limit) {
+                violations.add(String.format(Locale.ROOT, "%s.%s = %.1f ms (limite %.1f ms)", name, metric, millis, limit));
+            }
+        }
+    }
+}
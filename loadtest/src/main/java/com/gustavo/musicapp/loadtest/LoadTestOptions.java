@@ -0,0 +1,118 @@
+package com.gustavo.musicapp.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opções da linha de comando, no formato --nome=valor. Sem --target, a
+ * aplicação sobe no próprio processo.
+ */
+public class LoadTestOptions {
+
+    private static final String DEFAULT_MIX = "list=25,search=20,genre=15,play=25,popular=10,add=5";
+
+    private final Map<String, String> values;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Opção inválida: " + arg + " (use --nome=valor)");
+            }
+            int equals = arg.indexOf('=');
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    // URL de uma aplicação já no ar; vazio sobe a aplicação embarcada
+    public String getTarget() {
+        return values.getOrDefault("target", "");
+    }
+
+    // Banco da aplicação embarcada; vazio usa H2 em memória
+    public String getDbUrl() {
+        return values.getOrDefault("db-url", "");
+    }
+
+    public String getDbUsername() {
+        return values.getOrDefault("db-username", "root");
+    }
+
+    public String getDbPassword() {
+        return values.getOrDefault("db-password", "");
+    }
+
+    // Tomcat e agendador em threads virtuais na aplicação embarcada (exige Java 21)
+    public boolean isVirtualThreads() {
+        return Boolean.parseBoolean(values.getOrDefault("virtual-threads", "false"));
+    }
+
+    public int getCatalogSize() {
+        return Integer.parseInt(values.getOrDefault("catalog-size", "10000"));
+    }
+
+    // Chegadas por segundo, somando todos os endpoints
+    public double getRate() {
+        return Double.parseDouble(values.getOrDefault("rate", "200"));
+    }
+
+    public int getDurationSeconds() {
+        return Integer.parseInt(values.getOrDefault("duration", "60"));
+    }
+
+    public int getWarmupSeconds() {
+        return Integer.parseInt(values.getOrDefault("warmup", "10"));
+    }
+
+    // Clientes distintos simulados pelo cabeçalho X-Client-Id
+    public int getClients() {
+        return Integer.parseInt(values.getOrDefault("clients", "1000"));
+    }
+
+    public int getMaxInFlight() {
+        return Integer.parseInt(values.getOrDefault("max-in-flight", "2000"));
+    }
+
+    public long getTimeoutMillis() {
+        return Long.parseLong(values.getOrDefault("timeout-ms", "5000"));
+    }
+
+    public String getBudget() {
+        return values.getOrDefault("budget", "");
+    }
+
+    public Path getOutputDirectory() {
+        return Paths.get(values.getOrDefault("output", "target/loadtest"));
+    }
+
+    public long getSeed() {
+        return Long.parseLong(values.getOrDefault("seed", "42"));
+    }
+
+    // Peso de cada endpoint na mistura, ex.: list=25,search=20,play=55
+    public Map<Endpoint, Integer> getMix() {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String entry : values.getOrDefault("mix", DEFAULT_MIX).split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mistura inválida: " + entry + " (use endpoint=peso)");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Endpoint.fromName(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("A mistura precisa de ao menos um endpoint com peso positivo");
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,54 @@
+package com.gustavo.musicapp.loadtest;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Ponto de entrada do teste de carga: sobe a aplicação (ou usa --target),
+ * aquece por --warmup segundos, mede por --duration segundos e grava o
+ * relatório em target/loadtest/<data>. Sai com código 1 se algum orçamento de
+ * --budget estourou.
+ */
+public class LoadTestRunner {
+
+    private static final DateTimeFormatter DIRECTORY_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        LatencyBudget budget = LatencyBudget.parse(options.getBudget());
+        SyntheticCatalog catalog = new SyntheticCatalog(options.getSeed());
+
+        EmbeddedApp app = null;
+        Workload workload;
+        if (options.getTarget().isBlank()) {
+            System.out.printf("Subindo a aplicação com %d músicas...%n", options.getCatalogSize());
+            app = EmbeddedApp.start(options, catalog);
+            workload = new Workload(app.getBaseUrl(), app.getMinId(), app.getMaxId(), catalog, options.getClients());
+        } else {
+            // Aplicação externa: supõe o catálogo sintético com ids 1..catalog-size
+            workload = new Workload(options.getTarget(), 1, options.getCatalogSize(), catalog, options.getClients());
+        }
+
+        boolean passed;
+        try {
+            OpenLoadGenerator generator = new OpenLoadGenerator(workload, options);
+            System.out.printf("Carga: %.0f req/s, mistura %s, aquecimento %d s, medição %d s%n",
+                    options.getRate(), options.getMix(), options.getWarmupSeconds(), options.getDurationSeconds());
+            if (options.getWarmupSeconds() > 0) {
+                generator.run("aquecimento", options.getWarmupSeconds());
+            }
+            OpenLoadGenerator.Phase phase = generator.run("medição", options.getDurationSeconds());
+
+            List<String> violations = budget.check(phase.getStats(), phase.getAll());
+            Report.write(phase, violations,
+                    options.getOutputDirectory().resolve(LocalDateTime.now().format(DIRECTORY_TIMESTAMP)));
+            passed = violations.isEmpty();
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+}
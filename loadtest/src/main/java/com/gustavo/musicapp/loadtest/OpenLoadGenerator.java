@@ -0,0 +1,161 @@
+package com.gustavo.musicapp.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador em modelo aberto: as chegadas seguem um processo de Poisson na taxa
+ * pedida, independentemente de as respostas anteriores já terem voltado. A
+ * latência é medida a partir do instante planejado da chegada, então atrasos
+ * do próprio gerador ou da aplicação não somem da medida (coordinated
+ * omission).
+ *
+ * Acima de max-in-flight requisições em andamento, novas chegadas são
+ * descartadas e contadas como tal, em vez de o gerador desacelerar.
+ */
+public class OpenLoadGenerator {
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final HttpClient client;
+    private final Workload workload;
+    private final LoadTestOptions options;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Random random;
+
+    public OpenLoadGenerator(Workload workload, LoadTestOptions options) {
+        this.workload = workload;
+        this.options = options;
+        this.random = new Random(options.getSeed());
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(options.getTimeoutMillis()))
+                .build();
+
+        Map<Endpoint, Integer> mix = options.getMix();
+        endpoints = mix.keySet().toArray(new Endpoint[0]);
+        cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += mix.get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Gera carga por "seconds" segundos e espera as respostas pendentes (até
+     * timeout-ms). Cada fase tem os próprios resultados.
+     */
+    public Phase run(String name, int seconds) {
+        Phase phase = new Phase(name, endpoints, seconds);
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        Duration timeout = Duration.ofMillis(options.getTimeoutMillis());
+
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long nextProgress = start + PROGRESS_INTERVAL_NANOS;
+        long intended = start;
+        while (true) {
+            intended += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+            if (intended - end >= 0) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) - intended < 0) {
+                LockSupport.parkNanos(intended - now);
+            }
+            if (now - nextProgress >= 0) {
+                printProgress(phase, now - start);
+                nextProgress += PROGRESS_INTERVAL_NANOS;
+            }
+
+            Endpoint endpoint = pick();
+            EndpointStats stats = phase.stats.get(endpoint);
+            if (inFlight.get() >= options.getMaxInFlight()) {
+                stats.dropped();
+                phase.all.dropped();
+                continue;
+            }
+            HttpRequest request = endpoint.request(workload, random)
+                    .timeout(timeout)
+                    .header("Accept", "application/json")
+                    .header("X-Client-Id", workload.randomClient(random))
+                    .build();
+            long scheduled = intended;
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, ex) -> {
+                long latency = System.nanoTime() - scheduled;
+                inFlight.decrementAndGet();
+                if (ex != null) {
+                    stats.failed();
+                    phase.all.failed();
+                } else {
+                    stats.record(response.statusCode(), latency);
+                    phase.all.record(response.statusCode(), latency);
+                }
+            });
+        }
+        awaitPending();
+        return phase;
+    }
+
+    private Endpoint pick() {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+
+    private void awaitPending() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.getTimeoutMillis() * 2);
+        while (inFlight.get() > 0 && System.nanoTime() - deadline < 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private void printProgress(Phase phase, long elapsedNanos) {
+        System.out.printf("[%s] %3d s: %d ok, %d recusadas, %d erros, %d descartadas, %d em andamento%n",
+                phase.name, TimeUnit.NANOSECONDS.toSeconds(elapsedNanos), phase.all.getOk(), phase.all.getShed(),
+                phase.all.getErrors(), phase.all.getDropped(), inFlight.get());
+    }
+
+    public static final class Phase {
+        private final String name;
+        private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        private final EndpointStats all = new EndpointStats();
+        private final int seconds;
+
+        Phase(String name, Endpoint[] endpoints, int seconds) {
+            this.name = name;
+            this.seconds = seconds;
+            for (Endpoint endpoint : endpoints) {
+                stats.put(endpoint, new EndpointStats());
+            }
+        }
+
+        public Map<Endpoint, EndpointStats> getStats() {
+            return stats;
+        }
+
+        public EndpointStats getAll() {
+            return all;
+        }
+
+        public int getSeconds() {
+            return seconds;
+        }
+    }
+}
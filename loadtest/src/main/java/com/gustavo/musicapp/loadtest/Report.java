@@ -0,0 +1,63 @@
+package com.gustavo.musicapp.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tabela de vazão e percentis por endpoint no console e, no diretório de
+ * saída, a distribuição completa de cada histograma (.hgrm, em ms) e um
+ * resumo em texto.
+ */
+public class Report {
+
+    private static final String HEADER = String.format(Locale.ROOT,
+            "%-8s %9s %9s %8s %7s %9s %9s %9s %9s %9s %9s",
+            "endpoint", "ok", "ok/s", "recusas", "erros", "descartes", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+    public static void write(OpenLoadGenerator.Phase phase, List<String> violations, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        StringBuilder summary = new StringBuilder(HEADER).append('\n');
+        for (Map.Entry<Endpoint, EndpointStats> entry : phase.getStats().entrySet()) {
+            summary.append(line(entry.getKey().label(), entry.getValue(), phase.getSeconds())).append('\n');
+            writeDistribution(entry.getValue().histogram(), directory.resolve(entry.getKey().label() + ".hgrm"));
+        }
+        summary.append(line("all", phase.getAll(), phase.getSeconds())).append('\n');
+        writeDistribution(phase.getAll().histogram(), directory.resolve("all.hgrm"));
+
+        if (violations.isEmpty()) {
+            summary.append("\nOrçamentos de latência: OK\n");
+        } else {
+            summary.append("\nOrçamentos de latência estourados:\n");
+            violations.forEach(violation -> summary.append("  - ").append(violation).append('\n'));
+        }
+        System.out.println();
+        System.out.print(summary);
+        System.out.println("\nHistogramas em " + directory.toAbsolutePath());
+        Files.writeString(directory.resolve("summary.txt"), summary);
+    }
+
+    private static String line(String name, EndpointStats stats, int seconds) {
+        Histogram histogram = stats.histogram();
+        return String.format(Locale.ROOT, "%-8s %9d %9.1f %8d %7d %9d %9.2f %9.2f %9.2f %9.2f %9.2f",
+                name, stats.getOk(), (double) stats.getOk() / seconds, stats.getShed(), stats.getErrors(),
+                stats.getDropped(), millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+                millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static void writeDistribution(Histogram histogram, Path file) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+}
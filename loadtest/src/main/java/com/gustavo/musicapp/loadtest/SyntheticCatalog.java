@@ -0,0 +1,154 @@
+package com.gustavo.musicapp.loadtest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Catálogo sintético determinístico para a carga: a mesma semente gera as
+ * mesmas músicas e os mesmos termos de busca, então execuções de commits
+ * diferentes são comparáveis. Gêneros e palavras seguem distribuições
+ * concentradas, como num catálogo real.
+ */
+public class SyntheticCatalog {
+
+    static final String[] GENRES = {
+            "Rock", "Pop", "Jazz", "Samba", "MPB", "Bossa Nova", "Forró", "Funk", "Hip Hop", "Eletrônica",
+            "Reggae", "Blues", "Clássica", "Metal", "Sertanejo", "Pagode", "Indie", "Soul", "R&B", "Country"
+    };
+
+    private static final String[] SYLLABLES = {
+            "la", "mi", "so", "ra", "ve", "lu", "na", "to", "ca", "de", "ri", "mo", "sa", "be", "co",
+            "fa", "ne", "pi", "ta", "zu", "ma", "lo", "ki", "ro", "se", "du", "ga", "vi", "no", "re"
+    };
+
+    private static final int VOCABULARY_SIZE = 5000;
+    private static final int TRACKS_PER_ARTIST = 20;
+    private static final int TRACKS_PER_ALBUM = 10;
+    private static final int INSERT_BATCH_SIZE = 5000;
+
+    private final long seed;
+    private final String[] vocabulary;
+
+    public SyntheticCatalog(long seed) {
+        this.seed = seed;
+        this.vocabulary = buildVocabulary(new Random(seed));
+    }
+
+    // Palavras frequentes, algumas da cauda e prefixos curtos
+    public List<String> searchTerms() {
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            terms.add(vocabulary[i]);
+            terms.add(vocabulary[VOCABULARY_SIZE / 2 + i]);
+        }
+        for (int i = 0; i < 4; i++) {
+            terms.add(vocabulary[i * 7].substring(0, 3));
+            terms.add(vocabulary[i] + " " + vocabulary[i + 1]);
+        }
+        return terms;
+    }
+
+    public String genre(Random random) {
+        return GENRES[skewed(random, GENRES.length)];
+    }
+
+    public String title(Random random) {
+        int words = 1 + random.nextInt(4);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            String word = vocabulary[skewed(random, VOCABULARY_SIZE)];
+            title.append(i == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word);
+        }
+        return title.toString();
+    }
+
+    /**
+     * Insere as músicas via JDBC se a tabela estiver vazia, para que execuções
+     * repetidas contra um banco local reaproveitem o catálogo.
+     */
+    public void seedIfEmpty(DataSource dataSource, int size) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet existing = statement.executeQuery("SELECT COUNT(*) FROM musics")) {
+                existing.next();
+                if (existing.getLong(1) > 0) {
+                    return;
+                }
+            }
+            connection.setAutoCommit(false);
+            String sql = "INSERT INTO musics (title, artist, album, url, duration_seconds, genre, release_year, " +
+                    "play_count, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < size; i++) {
+                    Random random = new Random(seed * 31 + i);
+                    Timestamp createdAt = Timestamp.valueOf(LocalDateTime.of(2020, 1, 1, 0, 0).plusMinutes(i));
+                    statement.setString(1, uniqueTitle(i, title(random)));
+                    statement.setString(2, "Artista " + word(i / TRACKS_PER_ARTIST));
+                    statement.setString(3, "Álbum " + word(i / TRACKS_PER_ALBUM));
+                    statement.setString(4, "https://cdn.aura.local/tracks/" + i + ".mp3");
+                    statement.setInt(5, 90 + random.nextInt(360));
+                    statement.setString(6, genre(random));
+                    statement.setInt(7, 1960 + random.nextInt(65));
+                    statement.setLong(8, (long) (Math.pow(random.nextDouble(), 8) * 1_000_000));
+                    statement.setTimestamp(9, createdAt);
+                    statement.setTimestamp(10, createdAt);
+                    statement.addBatch();
+                    if ((i + 1) % INSERT_BATCH_SIZE == 0) {
+                        statement.executeBatch();
+                        connection.commit();
+                    }
+                }
+                statement.executeBatch();
+                connection.commit();
+            }
+        }
+    }
+
+    // Título repetido dentro do mesmo artista ganha o número da faixa (uk_music_title_artist)
+    private String uniqueTitle(int index, String title) {
+        for (int i = index - index % TRACKS_PER_ARTIST; i < index; i++) {
+            if (title(new Random(seed * 31 + i)).equals(title)) {
+                return title + " " + (index % TRACKS_PER_ARTIST + 1);
+            }
+        }
+        return title;
+    }
+
+    private String word(int index) {
+        String word = vocabulary[index % VOCABULARY_SIZE];
+        String name = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+        return index < VOCABULARY_SIZE ? name : name + " " + (index / VOCABULARY_SIZE);
+    }
+
+    // Índices baixos bem mais prováveis que os altos
+    private static int skewed(Random random, int bound) {
+        return (int) (Math.pow(random.nextDouble(), 3) * bound);
+    }
+
+    private static String[] buildVocabulary(Random random) {
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < VOCABULARY_SIZE) {
+            int syllables = 2 + random.nextInt(3);
+            StringBuilder word = new StringBuilder();
+            for (int i = 0; i < syllables; i++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words.add(word.toString());
+        }
+        return words.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,75 @@
+package com.gustavo.musicapp.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dados de que os endpoints precisam para montar as requisições: endereço da
+ * aplicação, faixa de ids existentes e termos de busca do catálogo.
+ */
+public class Workload {
+
+    private final String baseUrl;
+    private final long minId;
+    private final long maxId;
+    private final SyntheticCatalog catalog;
+    private final List<String> searchTerms;
+    private final int clients;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong added = new AtomicLong();
+
+    public Workload(String baseUrl, long minId, long maxId, SyntheticCatalog catalog, int clients) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.catalog = catalog;
+        this.searchTerms = catalog.searchTerms();
+        this.clients = clients;
+    }
+
+    URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    long randomId(Random random) {
+        return minId + (long) (random.nextDouble() * (maxId - minId + 1));
+    }
+
+    // Páginas iniciais bem mais frequentes, como na navegação real
+    int randomPage(Random random, int pageSize) {
+        long pages = Math.max(1, (maxId - minId + 1) / pageSize);
+        return (int) (Math.pow(random.nextDouble(), 4) * pages);
+    }
+
+    String randomSearchTerm(Random random) {
+        return encode(searchTerms.get(random.nextInt(searchTerms.size())));
+    }
+
+    String randomGenre(Random random) {
+        return encode(catalog.genre(random));
+    }
+
+    String randomClient(Random random) {
+        return "c" + random.nextInt(clients);
+    }
+
+    // Corpo do POST /api/music; título e URL únicos por execução
+    String newMusicJson(Random random) {
+        long sequence = added.incrementAndGet();
+        return "{\"title\":\"" + catalog.title(random) + " " + runId + "-" + sequence + "\","
+                + "\"artist\":\"Artista Carga " + runId + "\","
+                + "\"album\":\"Álbum Carga\","
+                + "\"url\":\"https://cdn.aura.local/load/" + runId + "/" + sequence + ".mp3\","
+                + "\"durationSeconds\":" + (90 + random.nextInt(360)) + ","
+                + "\"genre\":\"" + catalog.genre(random) + "\","
+                + "\"releaseYear\":" + (1960 + random.nextInt(65)) + "}";
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}